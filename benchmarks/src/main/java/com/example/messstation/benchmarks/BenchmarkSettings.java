@@ -0,0 +1,47 @@
+package com.example.messstation.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * Settings with all sensors enabled, the same content as settings/default_settings.json and settings/messstation.xml,
+ * so the benchmarks do not depend on the working directory.
+ */
+final class BenchmarkSettings {
+    static final byte[] JSON = ("{\n"
+            + "  \"temperaturEnabled\": \"true\",\n"
+            + "  \"ozonEnabled\": \"true\",\n"
+            + "  \"feinstaubEnabled\": \"true\",\n"
+            + "  \"kohlenmonoxidEnabled\": \"true\",\n"
+            + "  \"stickstoffdioxidEnabled\": \"true\",\n"
+            + "  \"schwefeldioxidEnabled\": \"true\"\n"
+            + "}\n").getBytes(StandardCharsets.UTF_8);
+    static final byte[] XML = ("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+            + "<messstation>\n"
+            + "    <temperaturEnabled>true</temperaturEnabled>\n"
+            + "    <ozonEnabled>true</ozonEnabled>\n"
+            + "    <feinstaubEnabled>true</feinstaubEnabled>\n"
+            + "    <kohlenmonoxidEnabled>true</kohlenmonoxidEnabled>\n"
+            + "    <stickstoffdioxidEnabled>true</stickstoffdioxidEnabled>\n"
+            + "    <schwefeldioxidEnabled>true</schwefeldioxidEnabled>\n"
+            + "</messstation>\n").getBytes(StandardCharsets.UTF_8);
+
+    private BenchmarkSettings() {
+    }
+
+    static Path jsonFile() throws IOException {
+        return write(".json", JSON);
+    }
+
+    static Path xmlFile() throws IOException {
+        return write(".xml", XML);
+    }
+
+    private static Path write(String suffix, byte[] content) throws IOException {
+        final var file = Files.createTempFile("messstation-benchmark", suffix);
+        file.toFile().deleteOnExit();
+        return Files.write(file, content);
+    }
+}
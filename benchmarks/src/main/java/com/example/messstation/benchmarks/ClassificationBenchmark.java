@@ -0,0 +1,89 @@
+package com.example.messstation.benchmarks;
+
+import com.example.messstation.PollutantDescriptor;
+import com.example.messstation.Sensor;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Color band classification of ozone readings: the table-driven PollutantDescriptor, single and batch,
+ * against the if/else ladder the modifyOzon() method used before. Random readings defeat the branch predictor
+ * the way historic data does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassificationBenchmark {
+    private static final int READINGS = 4096;
+    private final PollutantDescriptor ozon = PollutantDescriptor.defaultFor(Sensor.OZON);
+    private final double[] values = new double[READINGS];
+    private final byte[] bands = new byte[READINGS];
+
+    @Setup
+    public void setUp() {
+        final var random = new SplittableRandom(42);
+        for (int i = 0; i < READINGS; i++) {
+            values[i] = random.nextInt(0, 242);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(READINGS)
+    public int descriptor() {
+        int sum = 0;
+        for (final double value : values) {
+            sum += ozon.classify(value);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(READINGS)
+    public byte[] descriptorBatch() {
+        ozon.classify(values, 0, READINGS, bands);
+        return bands;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(READINGS)
+    public int ifElseLadder() {
+        int sum = 0;
+        for (final double value : values) {
+            sum += ladder((int) value);
+        }
+        return sum;
+    }
+
+    // the bands of the former modifyOzon()
+    private static int ladder(int value) {
+        if (value <= 32) {
+            return 0;
+        } else if (value <= 64) {
+            return 1;
+        } else if (value <= 119) {
+            return 2;
+        } else if (value <= 180) {
+            return 3;
+        } else if (value <= 240) {
+            return 4;
+        } else {
+            return 5;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.messstation.benchmarks;
+
+import com.example.messstation.MeasurementEngine;
+import com.example.messstation.StationCore;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * One batched engine tick over N headless stations with all sensors enabled, including the fork-join fan-out.
+ * The time per tick has to stay far below the 5 second cadence for the station counts we run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineTickBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int stations;
+    private MeasurementEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final var settings = BenchmarkSettings.jsonFile();
+        final List<StationCore> cores = new ArrayList<>(stations);
+        for (int i = 0; i < stations; i++) {
+            cores.add(new StationCore(settings));
+        }
+        engine = new MeasurementEngine();
+        engine.register(cores);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public MeasurementEngine tick() {
+        engine.tickNow();
+        return engine;
+    }
+}
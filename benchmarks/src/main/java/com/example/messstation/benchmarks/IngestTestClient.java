@@ -0,0 +1,65 @@
+package com.example.messstation.benchmarks;
+
+import com.example.messstation.Sensor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Load test client for the SocketSource of a running node: sends random readings in the ingestion line protocol.
+ * Usage: java -cp benchmarks/target/benchmarks.jar com.example.messstation.benchmarks.IngestTestClient
+ *        <tcp|udp> <port> [stations] [readings per second] [seconds]
+ */
+public final class IngestTestClient {
+    // readings per write, small enough for one UDP datagram
+    private static final int BATCH = 64;
+
+    private IngestTestClient() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final boolean tcp = !"udp".equalsIgnoreCase(args[0]);
+        final var address = new InetSocketAddress("127.0.0.1", Integer.parseInt(args[1]));
+        final int stations = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        final int rate = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+        final int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+
+        final var random = ThreadLocalRandom.current();
+        final var sensors = Sensor.all();
+        final var line = new StringBuilder(64);
+        final var buffer = ByteBuffer.allocate(BATCH * 64);
+        long sent = 0;
+        try (WritableByteChannel channel = tcp ? SocketChannel.open(address) : DatagramChannel.open().connect(address)) {
+            final long start = System.nanoTime();
+            final long end = start + seconds * 1_000_000_000L;
+            while (System.nanoTime() < end) {
+                buffer.clear();
+                for (int i = 0; i < BATCH; i++) {
+                    final var sensor = sensors[random.nextInt(sensors.length)];
+                    line.setLength(0);
+                    line.append(random.nextInt(stations)).append(',').append(sensor.id()).append(',')
+                            .append(random.nextDouble(0, sensor.walkMax())).append('\n');
+                    buffer.put(line.toString().getBytes(StandardCharsets.US_ASCII));
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                sent += BATCH;
+                // keep the requested rate
+                final long due = start + sent * 1_000_000_000L / rate;
+                final long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                }
+            }
+        }
+        System.out.println("Sent " + sent + " readings");
+    }
+}
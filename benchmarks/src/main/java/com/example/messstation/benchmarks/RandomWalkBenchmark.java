@@ -0,0 +1,52 @@
+package com.example.messstation.benchmarks;
+
+import com.example.messstation.RandomWalkSource;
+import com.example.messstation.StationCore;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * The random walk step of the simulation: a single getRandomOffsetValue() call
+ * and a full poll of a station with all six sensors enabled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomWalkBenchmark {
+    private double value = 120;
+    private StationCore station;
+    private RandomWalkSource source;
+
+    @Setup
+    public void setUp() throws IOException {
+        station = new StationCore(BenchmarkSettings.jsonFile());
+        source = new RandomWalkSource();
+    }
+
+    @Benchmark
+    public double randomOffsetValue() {
+        value = RandomWalkSource.getRandomOffsetValue(value, 6, 241);
+        return value;
+    }
+
+    @Benchmark
+    public StationCore pollStation() {
+        source.poll(station);
+        return station;
+    }
+}
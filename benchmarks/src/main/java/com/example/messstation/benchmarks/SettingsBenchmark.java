@@ -0,0 +1,53 @@
+package com.example.messstation.benchmarks;
+
+import com.example.messstation.SettingsLoader;
+import com.example.messstation.StationSettings;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * Settings loading, which replaced setBooleans(): parsing JSON and XML content without the cache,
+ * and the cached load of an unchanged file as it happens for every further station using the same file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettingsBenchmark {
+    private Path xmlFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        xmlFile = BenchmarkSettings.xmlFile();
+    }
+
+    @Benchmark
+    public StationSettings parseJson() throws IOException {
+        return SettingsLoader.parse(BenchmarkSettings.JSON);
+    }
+
+    @Benchmark
+    public StationSettings parseXml() throws IOException {
+        return SettingsLoader.parse(BenchmarkSettings.XML);
+    }
+
+    @Benchmark
+    public StationSettings loadCached() throws IOException {
+        return SettingsLoader.load(xmlFile);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.messstation.benchmarks;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Load test client for the ReadingStreamServer of a running node: opens many subscriptions on one selector and
+ * counts the frames. It only speaks the wire protocol, so it does not depend on the application classes.
+ * Usage: java -cp benchmarks/target/benchmarks.jar com.example.messstation.benchmarks.StreamTestClient
+ *        <port> [subscribers] [seconds] [filter] [slow subscribers]
+ * The filter is a subscription line like "* *" or "0,1 2". Slow subscribers never read and should be dropped
+ * by the server once their backlog is full.
+ */
+public final class StreamTestClient {
+    private StreamTestClient() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        final var address = new InetSocketAddress("127.0.0.1", Integer.parseInt(args[0]));
+        final int count = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        final var filter = args.length > 3 ? args[3] : "* *";
+        final int slow = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+        final var subscription = ByteBuffer.wrap((filter + "\n").getBytes(StandardCharsets.US_ASCII));
+        final var slowChannels = new ArrayList<SocketChannel>();
+        final List<Reader> readers = new ArrayList<>();
+        try (Selector selector = Selector.open()) {
+            final long connecting = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                final var channel = SocketChannel.open(address);
+                channel.write(subscription.duplicate());
+                if (i < slow) {
+                    slowChannels.add(channel);
+                    continue;
+                }
+                channel.configureBlocking(false);
+                final var reader = new Reader();
+                readers.add(reader);
+                channel.register(selector, SelectionKey.OP_READ, reader);
+            }
+            System.out.printf("%d subscribers connected in %d ms%n", count, (System.nanoTime() - connecting) / 1_000_000);
+            final long end = System.nanoTime() + seconds * 1_000_000_000L;
+            int closed = 0;
+            while (System.nanoTime() < end) {
+                selector.select(100);
+                for (final SelectionKey key : selector.selectedKeys()) {
+                    final var reader = (Reader) key.attachment();
+                    if (!reader.read((SocketChannel) key.channel())) {
+                        key.cancel();
+                        key.channel().close();
+                        closed++;
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+            long frames = 0;
+            long records = 0;
+            long bytes = 0;
+            for (final Reader reader : readers) {
+                frames += reader.frames;
+                records += reader.records;
+                bytes += reader.bytes;
+            }
+            System.out.printf("%d subscribers: %d frames, %d station records, %d bytes, %d closed by the server%n",
+                    readers.size(), frames, records, bytes, closed);
+            int dropped = 0;
+            for (final SocketChannel channel : slowChannels) {
+                // a dropped subscriber reads the end of the stream after its backlog
+                channel.configureBlocking(false);
+                final var drain = ByteBuffer.allocate(1 << 16);
+                int read;
+                try {
+                    do {
+                        drain.clear();
+                        read = channel.read(drain);
+                    } while (read > 0);
+                } catch (IOException ex) {
+                    read = -1;
+                }
+                if (read < 0) {
+                    dropped++;
+                }
+                channel.close();
+            }
+            if (slow > 0) {
+                System.out.printf("%d of %d slow subscribers dropped%n", dropped, slow);
+            }
+        }
+    }
+
+    /*
+     * Splits the stream of one subscription into frames.
+     */
+    private static final class Reader {
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        private long frames;
+        private long records;
+        private long bytes;
+
+        private boolean read(SocketChannel channel) {
+            final int read;
+            try {
+                read = channel.read(buffer);
+            } catch (IOException ex) {
+                // reset by the server
+                return false;
+            }
+            if (read < 0) {
+                return false;
+            }
+            bytes += read;
+            buffer.flip();
+            while (buffer.remaining() >= Integer.BYTES) {
+                final int length = buffer.getInt(buffer.position());
+                if (buffer.remaining() < Integer.BYTES + length) {
+                    if (Integer.BYTES + length > buffer.capacity()) {
+                        // a frame of many stations, grow to hold it
+                        buffer = ByteBuffer.allocate(Integer.BYTES + length).put(buffer);
+                        return true;
+                    }
+                    break;
+                }
+                records += buffer.getInt(buffer.position() + Integer.BYTES);
+                frames++;
+                buffer.position(buffer.position() + Integer.BYTES + length);
+            }
+            buffer.compact();
+            return true;
+        }
+    }
+}
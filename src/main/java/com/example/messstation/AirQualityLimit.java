@@ -0,0 +1,62 @@
+package com.example.messstation;
+
+/*
+ * Limit values of the EU air quality directive 2008/50/EC that are checked on the rolling averages.
+ * The directive states the limits in µg/m³; CO and SO² readings of the stations are on a mg/m³ scale
+ * (their gauges end at 30 and 3), so those limits are given in mg/m³ here.
+ */
+public enum AirQualityLimit {
+    OZON_8H(Sensor.OZON, Window.HOURS_8, 120),
+    FEINSTAUB_24H(Sensor.FEINSTAUB, Window.HOURS_24, 50),
+    STICKSTOFFDIOXID_1H(Sensor.STICKSTOFFDIOXID, Window.HOUR_1, 200),
+    SCHWEFELDIOXID_1H(Sensor.SCHWEFELDIOXID, Window.HOUR_1, 0.35),
+    SCHWEFELDIOXID_24H(Sensor.SCHWEFELDIOXID, Window.HOURS_24, 0.125),
+    KOHLENMONOXID_8H(Sensor.KOHLENMONOXID, Window.HOURS_8, 10);
+
+    private final Sensor sensor;
+    private final Window window;
+    private final double limit;
+
+    AirQualityLimit(Sensor sensor, Window window, double limit) {
+        this.sensor = sensor;
+        this.window = window;
+        this.limit = limit;
+    }
+
+    public Sensor sensor() {
+        return sensor;
+    }
+
+    public Window window() {
+        return window;
+    }
+
+    public double limit() {
+        return limit;
+    }
+
+    /*
+     * The averaging periods. The bucket width keeps every window at 60 to 96 buckets.
+     */
+    public enum Window {
+        HOUR_1(3_600_000L, 60_000L),
+        HOURS_8(8 * 3_600_000L, 300_000L),
+        HOURS_24(24 * 3_600_000L, 900_000L);
+
+        private final long millis;
+        private final long bucketMillis;
+
+        Window(long millis, long bucketMillis) {
+            this.millis = millis;
+            this.bucketMillis = bucketMillis;
+        }
+
+        public long millis() {
+            return millis;
+        }
+
+        public long bucketMillis() {
+            return bucketMillis;
+        }
+    }
+}
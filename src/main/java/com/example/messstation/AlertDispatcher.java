@@ -0,0 +1,71 @@
+package com.example.messstation;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Delivers BreachEvents asynchronously. The sampling path only offers the event to a bounded queue, which never blocks;
+ * if the listeners fall so far behind that the queue is full the event is dropped and counted.
+ * One daemon thread takes the events and calls the listeners.
+ */
+public final class AlertDispatcher {
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final Metrics.Counter DROPPED_TOTAL = Metrics.shared().counter(
+            "messstation_alerts_dropped_total", "Breach events dropped because the alert queue was full");
+    private final BlockingQueue<BreachEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final List<BreachListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread thread;
+
+    public AlertDispatcher() {
+        thread = new Thread(this::deliver, "messstation-alerts");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void addListener(BreachListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(BreachListener listener) {
+        listeners.remove(listener);
+    }
+
+    /*
+     * Called on the sampling path, returns immediately.
+     */
+    public void publish(BreachEvent event) {
+        if (!queue.offer(event)) {
+            dropped.increment();
+            DROPPED_TOTAL.increment();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public void shutdown() {
+        thread.interrupt();
+    }
+
+    private void deliver() {
+        try {
+            while (true) {
+                final var event = queue.take();
+                for (final BreachListener listener : listeners) {
+                    try {
+                        listener.onBreach(event);
+                    } catch (RuntimeException ex) {
+                        System.err.println("Breach listener failed: " + ex);
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            // shutdown
+        }
+    }
+}
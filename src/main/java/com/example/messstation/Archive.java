@@ -0,0 +1,99 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Long-term storage of the readings of many stations: one directory per station inside the archive directory and
+ * one compressed, indexed file per UTC day, e.g. archive/messstation.xml/2024-05-01.msar.
+ * Files are written by ArchiveWriter and queried here by time range; a range query only opens the days it covers.
+ */
+public final class Archive {
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final Path directory;
+
+    public Archive(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public static Path stationDirectory(Path archiveDirectory, String station) {
+        return archiveDirectory.resolve(station);
+    }
+
+    static String fileName(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay) + ArchiveFormat.EXTENSION;
+    }
+
+    /*
+     * The day file of the station that holds the given time, it does not have to exist.
+     */
+    public Path fileFor(String station, long time) {
+        return stationDirectory(directory, station).resolve(fileName(Math.floorDiv(time, DAY_MILLIS)));
+    }
+
+    /*
+     * Count, min, max and mean of the readings of the sensor of the station with from <= time <= to.
+     */
+    public RangeSummary summarize(String station, Sensor sensor, long from, long to) throws IOException {
+        final var summary = new RangeSummary();
+        for (final Path file : days(station, from, to)) {
+            try (var reader = new ArchiveReader(file)) {
+                reader.summarize(sensor, from, to, summary);
+            }
+        }
+        return summary;
+    }
+
+    /*
+     * Decodes the readings of the sensor of the station with from <= time <= to in time order.
+     */
+    public void read(String station, Sensor sensor, long from, long to, ArchiveReader.ReadingVisitor visitor)
+            throws IOException {
+        for (final Path file : days(station, from, to)) {
+            try (var reader = new ArchiveReader(file)) {
+                reader.read(sensor, from, to, visitor);
+            }
+        }
+    }
+
+    /*
+     * The existing day files of the station that overlap the range, oldest first.
+     * The names are ISO dates, so their order is the time order.
+     */
+    private List<Path> days(String station, long from, long to) throws IOException {
+        final var stationDirectory = stationDirectory(directory, station);
+        if (!Files.isDirectory(stationDirectory)) {
+            return List.of();
+        }
+        final long firstDay = Math.floorDiv(from, DAY_MILLIS);
+        final long lastDay = Math.floorDiv(to, DAY_MILLIS);
+        final var files = new ArrayList<Path>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(stationDirectory, "*" + ArchiveFormat.EXTENSION)) {
+            for (final Path file : stream) {
+                final var name = file.getFileName().toString();
+                try {
+                    final long day = LocalDate.parse(name.substring(0, name.length() - ArchiveFormat.EXTENSION.length()))
+                            .toEpochDay();
+                    if (day >= firstDay && day <= lastDay) {
+                        files.add(file);
+                    }
+                } catch (DateTimeParseException ex) {
+                    // not a day file of the archive
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+}
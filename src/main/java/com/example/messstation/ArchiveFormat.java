@@ -0,0 +1,308 @@
+package com.example.messstation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/*
+ * On-disk format of the station archive, shared by ArchiveWriter and ArchiveReader.
+ * There is one file per station and UTC day: an 8 byte header (magic "MSAR" and the format version), the blocks
+ * and at the end the index. A block is a chunk of the column of one sensor with up to BLOCK_READINGS readings:
+ * a 56 byte block header (marker "MSBK", sensor id, count, first and last time, min, max, sum and payload length) followed by
+ * the payload, one bit stream with the timestamps as delta-of-delta and the values XOR-compressed as in
+ * Facebook's Gorilla. Regular 5 second ticks cost one bit per timestamp, a value that did not change one bit.
+ *
+ * The index holds the offset and a copy of the header of every block, sorted by sensor and time, and ends with a
+ * 16 byte trailer: index offset, number of entries and the magic. A file whose writer was not closed has no
+ * trailer and is indexed by scanning its block headers instead. All numbers are little endian.
+ */
+final class ArchiveFormat {
+    static final String EXTENSION = ".msar";
+    static final int MAGIC = 0x4D534152;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int BLOCK_MARKER = 0x4D53424B;
+    static final int BLOCK_HEADER_BYTES = 56;
+    // an index entry is the block offset followed by the block header
+    static final int ENTRY_HEADER = 8;
+    static final int ENTRY_BYTES = ENTRY_HEADER + BLOCK_HEADER_BYTES;
+    static final int TRAILER_BYTES = 16;
+    static final int BLOCK_READINGS = 1024;
+    // worst case payload: 128 bits for the first reading, 68 time bits and 77 value bits for every other one
+    static final int MAX_PAYLOAD_BYTES = 16 + BLOCK_READINGS * 19;
+    // offsets inside a block header
+    static final int MARKER = 0;
+    static final int SENSOR = 4;
+    static final int COUNT = 8;
+    static final int FIRST_TIME = 12;
+    static final int LAST_TIME = 20;
+    static final int MIN = 28;
+    static final int MAX = 36;
+    static final int SUM = 44;
+    static final int LENGTH = 52;
+
+    private ArchiveFormat() {
+    }
+
+    // position of the block header of an index entry
+    static int headerAt(int entry) {
+        return entry * ENTRY_BYTES + ENTRY_HEADER;
+    }
+
+    static int sensorAt(ByteBuffer entries, int entry) {
+        return entries.getInt(headerAt(entry) + SENSOR);
+    }
+
+    static long firstTimeAt(ByteBuffer entries, int entry) {
+        return entries.getLong(headerAt(entry) + FIRST_TIME);
+    }
+
+    static long lastTimeAt(ByteBuffer entries, int entry) {
+        return entries.getLong(headerAt(entry) + LAST_TIME);
+    }
+
+    static long offsetAt(ByteBuffer entries, int entry) {
+        return entries.getLong(entry * ENTRY_BYTES);
+    }
+
+    /*
+     * Offset of the index of a complete file, -1 if the file has no valid trailer.
+     */
+    static long indexOffset(ByteBuffer file, int size) {
+        if (size < HEADER_BYTES + TRAILER_BYTES || file.getInt(size - 4) != MAGIC) {
+            return -1;
+        }
+        final long offset = file.getLong(size - TRAILER_BYTES);
+        final int entries = file.getInt(size - TRAILER_BYTES + 8);
+        return offset >= HEADER_BYTES && entries >= 0 && offset + (long) entries * ENTRY_BYTES + TRAILER_BYTES == size
+                ? offset : -1;
+    }
+
+    /*
+     * Indexes the blocks in file[HEADER_BYTES, end). Returns the end of the last complete block,
+     * the entries are added to the builder.
+     */
+    static int scan(ByteBuffer file, int end, IndexBuilder index) {
+        int position = HEADER_BYTES;
+        while (position + BLOCK_HEADER_BYTES <= end) {
+            final int sensor = file.getInt(position + SENSOR);
+            final int count = file.getInt(position + COUNT);
+            final int length = file.getInt(position + LENGTH);
+            final int next = position + BLOCK_HEADER_BYTES + length;
+            // a torn block or a partly written index ends the scan
+            if (file.getInt(position + MARKER) != BLOCK_MARKER || sensor < 0 || sensor >= Sensor.count()
+                    || count <= 0 || count > BLOCK_READINGS || length <= 0 || length > MAX_PAYLOAD_BYTES || next > end) {
+                break;
+            }
+            index.add(file, position, position);
+            position = next;
+        }
+        return position;
+    }
+
+    /*
+     * Decodes the readings of the block at the given position.
+     */
+    static void decode(ByteBuffer file, int position, ArchiveReader.ReadingVisitor visitor) {
+        final int count = file.getInt(position + COUNT);
+        final var bits = new BitReader(file, position + BLOCK_HEADER_BYTES);
+        long time = bits.read(64);
+        long valueBits = bits.read(64);
+        visitor.accept(time, Double.longBitsToDouble(valueBits));
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            delta += readDeltaOfDelta(bits);
+            time += delta;
+            if (bits.readBit()) {
+                if (bits.readBit()) {
+                    leading = (int) bits.read(5);
+                    int meaningful = (int) bits.read(6);
+                    if (meaningful == 0) {
+                        meaningful = 64;
+                    }
+                    trailing = 64 - leading - meaningful;
+                }
+                valueBits ^= bits.read(64 - leading - trailing) << trailing;
+            }
+            visitor.accept(time, Double.longBitsToDouble(valueBits));
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader bits) {
+        if (!bits.readBit()) {
+            return 0;
+        }
+        if (!bits.readBit()) {
+            return bits.read(7) - 63;
+        }
+        if (!bits.readBit()) {
+            return bits.read(9) - 255;
+        }
+        if (!bits.readBit()) {
+            return bits.read(12) - 2047;
+        }
+        return bits.read(64);
+    }
+
+    /*
+     * Compresses the column of one sensor block by block. Not thread-safe, owned by one ArchiveWriter.
+     */
+    static final class ColumnEncoder {
+        private final int sensor;
+        private final BitWriter bits = new BitWriter();
+        private int count;
+        private long firstTime;
+        private long lastTime;
+        private double min;
+        private double max;
+        private double sum;
+        private long previousTime;
+        private long previousDelta;
+        private long previousBits;
+        private int previousLeading;
+        private int previousTrailing;
+
+        ColumnEncoder(int sensor) {
+            this.sensor = sensor;
+        }
+
+        int size() {
+            return count;
+        }
+
+        boolean isFull() {
+            return count == BLOCK_READINGS;
+        }
+
+        void add(long time, double value) {
+            final long valueBits = Double.doubleToRawLongBits(value);
+            if (count == 0) {
+                bits.write(time, 64);
+                bits.write(valueBits, 64);
+                firstTime = time;
+                lastTime = time;
+                min = value;
+                max = value;
+                sum = 0;
+                previousDelta = 0;
+                // the first changed value always writes its own window
+                previousLeading = -1;
+            } else {
+                final long delta = time - previousTime;
+                writeDeltaOfDelta(delta - previousDelta);
+                previousDelta = delta;
+                writeXor(valueBits ^ previousBits);
+                firstTime = Math.min(firstTime, time);
+                lastTime = Math.max(lastTime, time);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            sum += value;
+            previousTime = time;
+            previousBits = valueBits;
+            count++;
+        }
+
+        private void writeDeltaOfDelta(long dod) {
+            if (dod == 0) {
+                bits.write(0b0, 1);
+            } else if (dod >= -63 && dod <= 64) {
+                bits.write(0b10, 2);
+                bits.write(dod + 63, 7);
+            } else if (dod >= -255 && dod <= 256) {
+                bits.write(0b110, 3);
+                bits.write(dod + 255, 9);
+            } else if (dod >= -2047 && dod <= 2048) {
+                bits.write(0b1110, 4);
+                bits.write(dod + 2047, 12);
+            } else {
+                bits.write(0b1111, 4);
+                bits.write(dod, 64);
+            }
+        }
+
+        private void writeXor(long xor) {
+            if (xor == 0) {
+                bits.write(0b0, 1);
+                return;
+            }
+            // 5 bits hold at most 31 leading zeros
+            final int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+            final int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                // the changed bits fit into the window of the previous value
+                bits.write(0b10, 2);
+                bits.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                final int meaningful = 64 - leading - trailing;
+                bits.write(0b11, 2);
+                bits.write(leading, 5);
+                // 64 meaningful bits are written as 0
+                bits.write(meaningful & 63, 6);
+                bits.write(xor >>> trailing, meaningful);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+
+        /*
+         * Writes the block header and the payload into the buffer and starts a new block.
+         */
+        void writeBlock(ByteBuffer out) {
+            out.putInt(BLOCK_MARKER).putInt(sensor).putInt(count).putLong(firstTime).putLong(lastTime)
+                    .putDouble(min).putDouble(max).putDouble(sum).putInt(bits.byteLength());
+            bits.writeTo(out);
+            bits.reset();
+            count = 0;
+        }
+    }
+
+    /*
+     * Collects index entries and sorts them by sensor and first time.
+     */
+    static final class IndexBuilder {
+        private ByteBuffer entries = ByteBuffer.allocate(ENTRY_BYTES * 64).order(ByteOrder.LITTLE_ENDIAN);
+        private int count;
+
+        int size() {
+            return count;
+        }
+
+        /*
+         * Adds the block header at the position of the buffer, the block starts at the given file offset.
+         */
+        void add(ByteBuffer header, int position, long offset) {
+            if (entries.remaining() < ENTRY_BYTES) {
+                final var grown = ByteBuffer.allocate(entries.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+                entries.flip();
+                grown.put(entries);
+                entries = grown;
+            }
+            entries.putLong(offset);
+            for (int i = 0; i < BLOCK_HEADER_BYTES; i++) {
+                entries.put(header.get(position + i));
+            }
+            count++;
+        }
+
+        /*
+         * The entries sorted by sensor and time, ready to be written as index or searched by ArchiveReader.
+         */
+        ByteBuffer sorted() {
+            final var order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingInt(i -> sensorAt(entries, i))
+                    .thenComparingLong(i -> firstTimeAt(entries, i)));
+            final var result = ByteBuffer.allocate(count * ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (final int i : order) {
+                result.put(entries.slice(i * ENTRY_BYTES, ENTRY_BYTES));
+            }
+            return result.flip();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.messstation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Reads one day file of a station archive through a read-only memory mapping.
+ * Queries binary search the index for the blocks of the sensor that overlap the range. Blocks that lie completely
+ * inside the range are answered from the min/max/sum of their index entry, only the blocks at the edges of the
+ * range are decompressed. A query over a whole day therefore touches the index and nothing else.
+ */
+public final class ArchiveReader implements Closeable {
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer data;
+    private final ByteBuffer index;
+    private final int entries;
+
+    /*
+     * Receives decoded readings.
+     */
+    @FunctionalInterface
+    public interface ReadingVisitor {
+        void accept(long time, double value);
+    }
+
+    public ArchiveReader(Path file) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large for a station archive!");
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            checkHeader(data, file);
+            final long indexOffset = ArchiveFormat.indexOffset(data, (int) size);
+            if (indexOffset >= 0) {
+                entries = (int) ((size - ArchiveFormat.TRAILER_BYTES - indexOffset) / ArchiveFormat.ENTRY_BYTES);
+                index = data.slice((int) indexOffset, entries * ArchiveFormat.ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            } else {
+                // the writer is still open or crashed, the complete blocks are indexed in memory
+                final var builder = new ArchiveFormat.IndexBuilder();
+                ArchiveFormat.scan(data, (int) size, builder);
+                entries = builder.size();
+                index = builder.sorted();
+            }
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    static void checkHeader(ByteBuffer buffer, Path file) throws IOException {
+        if (buffer.limit() < ArchiveFormat.HEADER_BYTES || buffer.getInt(0) != ArchiveFormat.MAGIC
+                || buffer.getInt(4) != ArchiveFormat.VERSION) {
+            throw new IOException(file + " is not a station archive!");
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getBlockCount() {
+        return entries;
+    }
+
+    /*
+     * Count, min, max and mean of the readings of the sensor with from <= time <= to.
+     */
+    public RangeSummary summarize(Sensor sensor, long from, long to) {
+        final var summary = new RangeSummary();
+        summarize(sensor, from, to, summary);
+        return summary;
+    }
+
+    /*
+     * Adds the readings of the sensor with from <= time <= to to the summary.
+     */
+    public void summarize(Sensor sensor, long from, long to, RangeSummary summary) {
+        for (int entry = firstEntry(sensor.id(), from); entry < entries; entry++) {
+            if (ArchiveFormat.sensorAt(index, entry) != sensor.id() || ArchiveFormat.firstTimeAt(index, entry) > to) {
+                break;
+            }
+            final long first = ArchiveFormat.firstTimeAt(index, entry);
+            final long last = ArchiveFormat.lastTimeAt(index, entry);
+            if (last < from) {
+                continue;
+            }
+            final int header = ArchiveFormat.headerAt(entry);
+            if (from <= first && last <= to) {
+                summary.add(index.getInt(header + ArchiveFormat.COUNT), index.getDouble(header + ArchiveFormat.MIN),
+                        index.getDouble(header + ArchiveFormat.MAX), index.getDouble(header + ArchiveFormat.SUM));
+            } else {
+                ArchiveFormat.decode(data, (int) ArchiveFormat.offsetAt(index, entry), (time, value) -> {
+                    if (time >= from && time <= to) {
+                        summary.add(value);
+                    }
+                });
+            }
+        }
+    }
+
+    /*
+     * Decodes the readings of the sensor with from <= time <= to in time order.
+     */
+    public void read(Sensor sensor, long from, long to, ReadingVisitor visitor) {
+        for (int entry = firstEntry(sensor.id(), from); entry < entries; entry++) {
+            if (ArchiveFormat.sensorAt(index, entry) != sensor.id() || ArchiveFormat.firstTimeAt(index, entry) > to) {
+                break;
+            }
+            if (ArchiveFormat.lastTimeAt(index, entry) < from) {
+                continue;
+            }
+            ArchiveFormat.decode(data, (int) ArchiveFormat.offsetAt(index, entry), (time, value) -> {
+                if (time >= from && time <= to) {
+                    visitor.accept(time, value);
+                }
+            });
+        }
+    }
+
+    /*
+     * The first entry of the sensor that can hold readings at or after the time: the entry before the first one
+     * that starts after the time, as blocks of one sensor follow each other.
+     */
+    private int firstEntry(int sensor, long time) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final int middleSensor = ArchiveFormat.sensorAt(index, middle);
+            if (middleSensor < sensor || middleSensor == sensor && ArchiveFormat.firstTimeAt(index, middle) <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        // low is the first entry of a later sensor or starting after the time
+        return low > 0 && ArchiveFormat.sensorAt(index, low - 1) == sensor ? low - 1 : low;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
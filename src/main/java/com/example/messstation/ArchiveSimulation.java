@@ -0,0 +1,85 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+/*
+ * Command line test of the archive: disk usage and query latency.
+ * Usage: ArchiveSimulation [archive directory] [stations] [days] [seed] [settings file]
+ * Writes the given number of days of 5 second readings of simulated stations (default 10 stations, 30 days) with the
+ * seeded SimulationEngine, then prints the bytes per reading, the size extrapolated to 1000 stations and a year,
+ * and the latency of range queries over a day, a week and the whole archive of one station.
+ */
+public final class ArchiveSimulation {
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private ArchiveSimulation() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        final Path directory = args.length > 0 ? Paths.get(args[0]) : Paths.get("archive");
+        final int stationCount = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        final int days = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        final long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+        final Path settings = args.length > 4 ? Paths.get(args[4]) : Paths.get("settings/default_settings.json");
+
+        final var simulation = new SimulationEngine(stationCount, SettingsLoader.load(settings), seed);
+        final var writers = new ArchiveWriter[stationCount];
+        for (int i = 0; i < stationCount; i++) {
+            writers[i] = new ArchiveWriter(directory, "station" + i);
+        }
+        final long start = Math.floorDiv(System.currentTimeMillis(), DAY_MILLIS) * DAY_MILLIS - days * DAY_MILLIS;
+        final long steps = days * DAY_MILLIS / MeasurementEngine.TICK_MILLIS;
+        final long writeStart = System.nanoTime();
+        final var sensors = Sensor.all();
+        for (long step = 0; step < steps; step++) {
+            simulation.step();
+            final long time = start + step * MeasurementEngine.TICK_MILLIS;
+            for (int station = 0; station < stationCount; station++) {
+                final var writer = writers[station];
+                for (final Sensor sensor : sensors) {
+                    final double value = simulation.getValue(station, sensor);
+                    if (!Double.isNaN(value)) {
+                        writer.append(sensor, time, value);
+                    }
+                }
+            }
+        }
+        for (final ArchiveWriter writer : writers) {
+            writer.close();
+        }
+        final double writeSeconds = (System.nanoTime() - writeStart) / 1e9;
+        final long readings = steps * simulation.getReadingsPerStep();
+        final long bytes = size(directory);
+        System.out.printf("%d readings written in %.1f s (%.1f million/s)%n", readings, writeSeconds, readings / writeSeconds / 1e6);
+        System.out.printf("%d bytes, %.2f bytes per reading, %.1f GB for 1000 stations and a year%n",
+                bytes, (double) bytes / readings, (double) bytes / readings * simulation.getReadingsPerStep() / stationCount
+                        * 1000 * 365 * DAY_MILLIS / MeasurementEngine.TICK_MILLIS / 1e9);
+
+        final var archive = new Archive(directory);
+        final var sensor = sensors[0];
+        // the ranges start inside a block, so the edge blocks have to be decoded
+        query(archive, sensor, "day", start + DAY_MILLIS / 3, start + DAY_MILLIS / 3 + DAY_MILLIS);
+        query(archive, sensor, "week", start + DAY_MILLIS / 3, start + DAY_MILLIS / 3 + Math.min(days, 7) * DAY_MILLIS);
+        query(archive, sensor, "all", start, start + days * DAY_MILLIS);
+    }
+
+    private static void query(Archive archive, Sensor sensor, String name, long from, long to) throws IOException {
+        RangeSummary summary = null;
+        final int runs = 20;
+        final long begin = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            summary = archive.summarize("station0", sensor, from, to);
+        }
+        System.out.printf("%s (%s): %.3f ms per query, %s%n", name, sensor.key(), (System.nanoTime() - begin) / 1e6 / runs, summary);
+    }
+
+    private static long size(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.messstation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Writes the readings of one station into its archive directory, one ArchiveFormat file per UTC day.
+ * Readings are collected per sensor column and a column is compressed into a block as soon as it holds
+ * ArchiveFormat.BLOCK_READINGS readings; the index is written when the day ends or the writer is closed.
+ * Opening a day that was already written, e.g. after a restart or a crash, keeps its complete blocks and continues it.
+ */
+public final class ArchiveWriter implements StationListener, Closeable {
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final Path directory;
+    private final ArchiveFormat.ColumnEncoder[] columns = new ArchiveFormat.ColumnEncoder[Sensor.count()];
+    private final ByteBuffer block = ByteBuffer.allocateDirect(ArchiveFormat.BLOCK_HEADER_BYTES + ArchiveFormat.MAX_PAYLOAD_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private FileChannel channel;
+    private ArchiveFormat.IndexBuilder index;
+    private long day = Long.MIN_VALUE;
+
+    /*
+     * Writes into the directory of the station inside the archive directory, see Archive.stationDirectory().
+     */
+    public ArchiveWriter(Path archiveDirectory, String station) throws IOException {
+        directory = Files.createDirectories(Archive.stationDirectory(archiveDirectory, station));
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ArchiveFormat.ColumnEncoder(i);
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /*
+     * Appends the current readings of all enabled sensors of the station.
+     */
+    @Override
+    public void onTick(StationCore station) {
+        try {
+            final long time = station.getLastTickMillis();
+            synchronized (this) {
+                for (final Sensor sensor : station.getEnabledSensors()) {
+                    append(sensor, time, station.getValue(sensor));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /*
+     * Appends one reading. Readings of a sensor are expected in time order; a reading of an earlier day
+     * than the current one is written into the current day.
+     */
+    public synchronized void append(Sensor sensor, long time, double value) throws IOException {
+        final long readingDay = Math.floorDiv(time, DAY_MILLIS);
+        if (readingDay > day) {
+            openDay(readingDay);
+        }
+        final var column = columns[sensor.id()];
+        column.add(time, value);
+        if (column.isFull()) {
+            writeBlock(column);
+        }
+    }
+
+    /*
+     * Writes the open blocks and the index of the current day, the next reading starts a new file.
+     */
+    public synchronized void flush() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        for (final var column : columns) {
+            if (column.size() > 0) {
+                writeBlock(column);
+            }
+        }
+        final var entries = index.sorted();
+        final long indexOffset = channel.size();
+        write(entries, indexOffset);
+        final var trailer = ByteBuffer.allocate(ArchiveFormat.TRAILER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        trailer.putLong(indexOffset).putInt(index.size()).putInt(ArchiveFormat.MAGIC).flip();
+        write(trailer, indexOffset + entries.capacity());
+        channel.force(false);
+        channel.close();
+        channel = null;
+        index = null;
+        day = Long.MIN_VALUE;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+    }
+
+    private void openDay(long newDay) throws IOException {
+        flush();
+        final var file = directory.resolve(Archive.fileName(newDay));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = new ArchiveFormat.IndexBuilder();
+        final long size = channel.size();
+        if (size == 0) {
+            final var header = ByteBuffer.allocate(ArchiveFormat.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(ArchiveFormat.MAGIC).putInt(ArchiveFormat.VERSION).flip();
+            write(header, 0);
+        } else {
+            // read instead of mapped, a mapped file cannot be truncated on every platform
+            final var existing = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+            while (existing.hasRemaining() && channel.read(existing, existing.position()) >= 0) {
+                // read the whole day
+            }
+            ArchiveReader.checkHeader(existing, file);
+            final long indexOffset = ArchiveFormat.indexOffset(existing, (int) size);
+            // the old index and trailer are dropped, they are written again with the new blocks
+            channel.truncate(ArchiveFormat.scan(existing, (int) (indexOffset < 0 ? size : indexOffset), index));
+        }
+        day = newDay;
+    }
+
+    private void writeBlock(ArchiveFormat.ColumnEncoder column) throws IOException {
+        block.clear();
+        column.writeBlock(block);
+        block.flip();
+        final long offset = channel.size();
+        index.add(block, 0, offset);
+        write(block, offset);
+    }
+
+    private void write(ByteBuffer buffer, long position) throws IOException {
+        long at = position;
+        while (buffer.hasRemaining()) {
+            at += channel.write(buffer, at);
+        }
+    }
+}
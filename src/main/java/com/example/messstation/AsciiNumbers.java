@@ -0,0 +1,112 @@
+package com.example.messstation;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Parses numbers directly from ASCII bytes of a ByteBuffer, using absolute positions and without creating Strings.
+ * Malformed input results in NaN or Long.MIN_VALUE, the callers count such lines as malformed.
+ */
+final class AsciiNumbers {
+    static final long INVALID_LONG = Long.MIN_VALUE;
+    // powers of ten that are exactly representable as double
+    private static final double[] POWERS = new double[23];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < POWERS.length; i++) {
+            POWERS[i] = POWERS[i - 1] * 10;
+        }
+    }
+
+    private AsciiNumbers() {
+    }
+
+    /*
+     * mantissa / 10^fractionDigits, exact like parseDouble() for up to 15 significant digits.
+     */
+    static double decimal(long mantissa, int fractionDigits) {
+        return fractionDigits < POWERS.length ? mantissa / POWERS[fractionDigits] : mantissa / Math.pow(10, fractionDigits);
+    }
+
+    static long parseLong(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == to || to - i > 18) {
+            return INVALID_LONG;
+        }
+        long result = 0;
+        for (; i < to; i++) {
+            final int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID_LONG;
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    /*
+     * Parses [sign] digits [. digits] [e|E [sign] digits]. Values with up to 15 significant digits are exact
+     * because the mantissa is scaled by an exactly representable power of ten.
+     */
+    static double parseDouble(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        boolean sawDigit = false;
+        for (; i < to; i++) {
+            final byte b = buffer.get(i);
+            if (b == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            final int digit = b - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            sawDigit = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + digit;
+                digits += mantissa == 0 ? 0 : 1;
+                scale -= fraction ? 1 : 0;
+            } else if (!fraction) {
+                // digits beyond the precision of the mantissa only change the magnitude
+                scale++;
+            }
+        }
+        if (!sawDigit) {
+            return Double.NaN;
+        }
+        if (i < to) {
+            final byte b = buffer.get(i);
+            if (b != 'e' && b != 'E') {
+                return Double.NaN;
+            }
+            final long exponent = parseLong(buffer, i + 1, to);
+            if (exponent == INVALID_LONG) {
+                return Double.NaN;
+            }
+            scale += (int) Math.max(-400, Math.min(400, exponent));
+        }
+        double value = mantissa;
+        if (scale < 0 && -scale < POWERS.length) {
+            value /= POWERS[-scale];
+        } else if (scale > 0 && scale < POWERS.length) {
+            value *= POWERS[scale];
+        } else if (scale != 0) {
+            value *= Math.pow(10, scale);
+        }
+        return negative ? -value : value;
+    }
+}
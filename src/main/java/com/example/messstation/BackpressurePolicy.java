@@ -0,0 +1,17 @@
+package com.example.messstation;
+
+/*
+ * What a full ReadingQueue does with a new reading.
+ */
+public enum BackpressurePolicy {
+    /*
+     * The oldest queued reading is overwritten. The producer never waits, so a network listener keeps up with any rate;
+     * the station always shows the newest values but the history loses readings under overload. Used for sockets.
+     */
+    DROP_OLDEST,
+    /*
+     * The producer waits until the next tick drained the queue. Nothing is lost, but the producer is slowed down
+     * to the rate of the station. Used for files, which can simply be read later.
+     */
+    BLOCK
+}
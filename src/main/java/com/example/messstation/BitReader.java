@@ -0,0 +1,41 @@
+package com.example.messstation;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Reads a bit stream written by BitWriter from a buffer, usually a memory-mapped archive, with absolute gets.
+ * The buffer itself is not modified, so many readers can share one mapping.
+ */
+final class BitReader {
+    private final ByteBuffer buffer;
+    private final int start;
+    private long position;
+
+    BitReader(ByteBuffer buffer, int start) {
+        this.buffer = buffer;
+        this.start = start;
+    }
+
+    boolean readBit() {
+        final int value = buffer.get(start + (int) (position >>> 3)) >>> (7 - (int) (position & 7));
+        position++;
+        return (value & 1) != 0;
+    }
+
+    /*
+     * Reads count bits, 0 to 64, as the lowest bits of the result.
+     */
+    long read(int count) {
+        long value = 0;
+        int remaining = count;
+        while (remaining > 0) {
+            final int offset = (int) (position & 7);
+            final int take = Math.min(8 - offset, remaining);
+            final int current = buffer.get(start + (int) (position >>> 3)) & 0xFF;
+            value = (value << take) | ((current >>> (8 - offset - take)) & ((1 << take) - 1));
+            remaining -= take;
+            position += take;
+        }
+        return value;
+    }
+}
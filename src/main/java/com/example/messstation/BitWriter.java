@@ -0,0 +1,61 @@
+package com.example.messstation;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/*
+ * Growable bit stream, bits are written most significant first. Reused for every block of an archive column.
+ */
+final class BitWriter {
+    private long[] words = new long[256];
+    private long bits;
+
+    void reset() {
+        Arrays.fill(words, 0, (int) ((bits + 63) >>> 6), 0);
+        bits = 0;
+    }
+
+    long bitLength() {
+        return bits;
+    }
+
+    int byteLength() {
+        return (int) ((bits + 7) >>> 3);
+    }
+
+    void writeBit(boolean bit) {
+        write(bit ? 1 : 0, 1);
+    }
+
+    /*
+     * Writes the lowest count bits of value, count is 0 to 64.
+     */
+    void write(long value, int count) {
+        if (count == 0) {
+            return;
+        }
+        final long masked = count == 64 ? value : value & ((1L << count) - 1);
+        final int index = (int) (bits >>> 6);
+        if (index + 1 >= words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        final int free = 64 - (int) (bits & 63);
+        if (count <= free) {
+            words[index] |= masked << (free - count);
+        } else {
+            words[index] |= masked >>> (count - free);
+            words[index + 1] |= masked << (64 - (count - free));
+        }
+        bits += count;
+    }
+
+    /*
+     * Puts the written bits into the buffer, padded with zero bits to whole bytes.
+     */
+    void writeTo(ByteBuffer out) {
+        final int length = byteLength();
+        for (int i = 0; i < length; i++) {
+            out.put((byte) (words[i >>> 3] >>> (56 - ((i & 7) << 3))));
+        }
+    }
+}
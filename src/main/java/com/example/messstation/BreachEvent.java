@@ -0,0 +1,46 @@
+package com.example.messstation;
+
+/*
+ * A rolling average crossed an AirQualityLimit, upwards (exceeded) or back below it.
+ */
+public final class BreachEvent {
+    private final String station;
+    private final AirQualityLimit limit;
+    private final double average;
+    private final long time;
+    private final boolean exceeded;
+
+    public BreachEvent(String station, AirQualityLimit limit, double average, long time, boolean exceeded) {
+        this.station = station;
+        this.limit = limit;
+        this.average = average;
+        this.time = time;
+        this.exceeded = exceeded;
+    }
+
+    public String getStation() {
+        return station;
+    }
+
+    public AirQualityLimit getLimit() {
+        return limit;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s %s: %s average %.3f (limit %s)", station, limit,
+                exceeded ? "exceeded" : "cleared", limit.window(), average, limit.limit());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.messstation;
+
+/*
+ * Receives BreachEvents on the thread of the AlertDispatcher, never on the sampling thread.
+ */
+@FunctionalInterface
+public interface BreachListener {
+    void onBreach(BreachEvent event);
+}
@@ -0,0 +1,495 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/*
+ * Bulk import of historic measurement exports in the ingestion line protocol (see ReadingDecoder),
+ *     <station id>,<sensor id>,<value>[,<epoch millis>]
+ * classified with the color bands of a settings file, the same PollutantDescriptors the gauges use.
+ * The same files can be shown on the gauges of the stations with --ingest-file.
+ *
+ * Every file is split into chunks of CHUNK_BYTES that end at a line break. Each chunk is memory-mapped and parsed
+ * on a ForkJoinPool from the mapped bytes, in a single pass per line and without creating a String per line. A chunk adds
+ * its readings to its own Summary, the summaries are merged once all chunks are done, so the workers share nothing.
+ */
+public final class BulkImport {
+    static final int CHUNK_BYTES = 64 << 20;
+    // bytes copied from the mapped chunk at once, also the longest line that is parsed
+    static final int WINDOW_BYTES = 64 << 10;
+    // station ids are array indexes of a Summary, larger ids are counted as malformed
+    static final int MAX_STATION_ID = 1 << 20;
+
+    private final StationSettings settings;
+    private final PollutantDescriptor[] descriptors = new PollutantDescriptor[Sensor.count()];
+
+    public BulkImport(StationSettings settings) {
+        this.settings = settings;
+        for (final Sensor sensor : Sensor.all()) {
+            descriptors[sensor.id()] = settings.getDescriptor(sensor);
+        }
+    }
+
+    public StationSettings getSettings() {
+        return settings;
+    }
+
+    /*
+     * Imports the files on the pool and returns the merged summary of all readings.
+     */
+    public Summary importFiles(List<Path> files, ForkJoinPool pool) throws IOException {
+        final var channels = new ArrayList<FileChannel>(files.size());
+        try {
+            final var tasks = new ArrayList<ForkJoinTask<Summary>>();
+            for (final Path file : files) {
+                final var channel = FileChannel.open(file, StandardOpenOption.READ);
+                channels.add(channel);
+                final long size = channel.size();
+                long from = 0;
+                while (from < size) {
+                    final long to = chunkEnd(channel, from, size);
+                    final long begin = from;
+                    tasks.add(pool.submit(() -> importChunk(channel.map(FileChannel.MapMode.READ_ONLY, begin, to - begin))));
+                    from = to;
+                }
+            }
+            final var summary = new Summary(descriptors);
+            for (final var task : tasks) {
+                summary.merge(task.join());
+            }
+            return summary;
+        } finally {
+            for (final FileChannel channel : channels) {
+                channel.close();
+            }
+        }
+    }
+
+    /*
+     * End of the chunk starting at from: just behind the first line break after from + CHUNK_BYTES, or the file end.
+     */
+    private static long chunkEnd(FileChannel channel, long from, long size) throws IOException {
+        long position = from + CHUNK_BYTES;
+        if (position >= size) {
+            return size;
+        }
+        final var probe = ByteBuffer.allocate(4096);
+        while (position < size) {
+            probe.clear();
+            final int read = channel.read(probe, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /*
+     * Parses the lines of one mapped chunk. The last line may end without a line break.
+     * The mapped bytes are copied window by window into a reused array, one bulk copy is much cheaper than
+     * reading every byte through the mapped buffer; a line cut by the window end is moved to the next window.
+     * A line longer than the window counts as one malformed line, its bytes are dropped up to the next line break.
+     */
+    Summary importChunk(MappedByteBuffer chunk) {
+        final var summary = new Summary(descriptors);
+        final var window = new byte[WINDOW_BYTES];
+        final var wrapped = ByteBuffer.wrap(window);
+        final int limit = chunk.limit();
+        int carried = 0;
+        int position = 0;
+        boolean skipping = false;
+        while (position < limit) {
+            final int length = Math.min(window.length - carried, limit - position);
+            chunk.get(position, window, carried, length);
+            position += length;
+            final int end = carried + length;
+            int start = 0;
+            if (skipping) {
+                // the rest of an overlong line
+                while (start < end && window[start] != '\n') {
+                    start++;
+                }
+                if (start == end) {
+                    carried = 0;
+                    continue;
+                }
+                start++;
+                skipping = false;
+            }
+            int complete = end;
+            if (position < limit) {
+                while (complete > start && window[complete - 1] != '\n') {
+                    complete--;
+                }
+                if (complete == 0) {
+                    // a line longer than the window is no reading, skip it
+                    summary.malformed++;
+                    skipping = true;
+                    carried = 0;
+                    continue;
+                }
+            }
+            importLines(window, wrapped, start, complete, summary);
+            carried = end - complete;
+            System.arraycopy(window, complete, window, 0, carried);
+        }
+        return summary;
+    }
+
+    /*
+     * Imports the complete lines in window[from, end).
+     */
+    private void importLines(byte[] window, ByteBuffer wrapped, int from, int end, Summary summary) {
+        int lineStart = from;
+        while (lineStart < end) {
+            final int next = importPlainLine(window, lineStart, end, summary);
+            if (next >= 0) {
+                lineStart = next;
+                continue;
+            }
+            // anything else, e.g. signs, exponents, comments or CR LF line ends, takes the general path
+            int lineEnd = lineStart;
+            while (lineEnd < end && window[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            importLine(wrapped, lineStart, lineEnd, summary);
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    /*
+     * Single pass over a line of the plain form digits,digits,digits[.digits][,digits] as written by exports,
+     * parsing while scanning. Returns the start of the next line, or -1 if the line has to take the general path.
+     */
+    private int importPlainLine(byte[] window, int from, int end, Summary summary) {
+        int i = from;
+        long station = 0;
+        int digit;
+        while (i < end && (digit = window[i] - '0') >= 0 && digit <= 9) {
+            station = station * 10 + digit;
+            i++;
+        }
+        if (i == from || i - from > 7 || i == end || window[i] != ',') {
+            return -1;
+        }
+        final int sensorStart = ++i;
+        long sensor = 0;
+        while (i < end && (digit = window[i] - '0') >= 0 && digit <= 9) {
+            sensor = sensor * 10 + digit;
+            i++;
+        }
+        if (i == sensorStart || i - sensorStart > 3 || i == end || window[i] != ',') {
+            return -1;
+        }
+        final int valueStart = ++i;
+        long mantissa = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            final byte b = window[i];
+            digit = b - '0';
+            if (digit >= 0 && digit <= 9) {
+                mantissa = mantissa * 10 + digit;
+                fractionDigits += fractionDigits >= 0 ? 1 : 0;
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+        // at most 15 digits keep the value exact, a lone "." is no number
+        final int length = i - valueStart - (fractionDigits >= 0 ? 1 : 0);
+        if (length == 0 || length > 15) {
+            return -1;
+        }
+        long time = Long.MIN_VALUE;
+        if (i < end && window[i] == ',') {
+            final int timeStart = ++i;
+            time = 0;
+            while (i < end && (digit = window[i] - '0') >= 0 && digit <= 9) {
+                time = time * 10 + digit;
+                i++;
+            }
+            if (i == timeStart || i - timeStart > 18) {
+                return -1;
+            }
+        }
+        if (i < end && window[i] != '\n') {
+            return -1;
+        }
+        if (station >= MAX_STATION_ID || sensor >= Sensor.count()) {
+            summary.malformed++;
+        } else {
+            summary.add((int) station, (int) sensor, AsciiNumbers.decimal(mantissa, Math.max(0, fractionDigits)), time);
+        }
+        return i + 1;
+    }
+
+    private void importLine(ByteBuffer buffer, int from, int to, Summary summary) {
+        if (to > from && buffer.get(to - 1) == '\r') {
+            to--;
+        }
+        if (to == from || buffer.get(from) == '#') {
+            return;
+        }
+        final int first = indexOf(buffer, from, to);
+        final int second = first < 0 ? -1 : indexOf(buffer, first + 1, to);
+        if (second < 0) {
+            summary.malformed++;
+            return;
+        }
+        final int third = indexOf(buffer, second + 1, to);
+        final long station = AsciiNumbers.parseLong(buffer, from, first);
+        final long sensor = AsciiNumbers.parseLong(buffer, first + 1, second);
+        final double value = AsciiNumbers.parseDouble(buffer, second + 1, third < 0 ? to : third);
+        final long time = third < 0 ? Long.MIN_VALUE : AsciiNumbers.parseLong(buffer, third + 1, to);
+        // a header line like "station,sensor,value,time" ends up here as well
+        if (station < 0 || station >= MAX_STATION_ID || sensor < 0 || sensor >= Sensor.count()
+                || Double.isNaN(value) || third >= 0 && time == AsciiNumbers.INVALID_LONG) {
+            summary.malformed++;
+            return;
+        }
+        summary.add((int) station, (int) sensor, value, time);
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Readings, value range and band distribution per station and sensor. Not thread-safe, every chunk fills its own.
+     */
+    public static final class Summary {
+        private final PollutantDescriptor[] descriptors;
+        private StationSummary[] stations = new StationSummary[16];
+        private long readings;
+        private long malformed;
+
+        Summary(PollutantDescriptor[] descriptors) {
+            this.descriptors = descriptors;
+        }
+
+        public long getReadings() {
+            return readings;
+        }
+
+        public long getMalformed() {
+            return malformed;
+        }
+
+        // the summaries of the stations that had readings, by ascending station id
+        public List<StationSummary> getStations() {
+            final var result = new ArrayList<StationSummary>();
+            for (final StationSummary station : stations) {
+                if (station != null) {
+                    result.add(station);
+                }
+            }
+            return result;
+        }
+
+        void add(int station, int sensor, double value, long time) {
+            if (station >= stations.length) {
+                stations = Arrays.copyOf(stations, Math.max(station + 1, stations.length * 2));
+            }
+            var summary = stations[station];
+            if (summary == null) {
+                summary = new StationSummary(station, descriptors);
+                stations[station] = summary;
+            }
+            summary.add(sensor, value, time);
+            readings++;
+        }
+
+        void merge(Summary other) {
+            if (other.stations.length > stations.length) {
+                stations = Arrays.copyOf(stations, other.stations.length);
+            }
+            for (int i = 0; i < other.stations.length; i++) {
+                final var station = other.stations[i];
+                if (station == null) {
+                    continue;
+                }
+                if (stations[i] == null) {
+                    stations[i] = station;
+                } else {
+                    stations[i].merge(station);
+                }
+            }
+            readings += other.readings;
+            malformed += other.malformed;
+        }
+
+        /*
+         * Prints one line per station and sensor: count, min, mean, max and the share of every color band.
+         */
+        public void print(PrintStream out) {
+            for (final StationSummary station : getStations()) {
+                for (final Sensor sensor : Sensor.all()) {
+                    final long count = station.getCount(sensor);
+                    if (count == 0) {
+                        continue;
+                    }
+                    final var line = new StringBuilder();
+                    line.append(String.format("station %d %-18s n=%-10d min %8.2f mean %8.2f max %8.2f  bands",
+                            station.getStation(), sensor.name(), count, station.getMin(sensor),
+                            station.getMean(sensor), station.getMax(sensor)));
+                    for (final long band : station.getBands(sensor)) {
+                        line.append(String.format(" %5.1f%%", 100.0 * band / count));
+                    }
+                    out.println(line);
+                }
+            }
+        }
+    }
+
+    /*
+     * Per sensor statistics of one station. Values are classified as they are, also those of integral sensors,
+     * like the gauges, the overview and the reports do with ingested readings.
+     */
+    public static final class StationSummary {
+        private final int station;
+        private final PollutantDescriptor[] descriptors;
+        private final long[] counts = new long[Sensor.count()];
+        private final double[] min = new double[Sensor.count()];
+        private final double[] max = new double[Sensor.count()];
+        private final double[] sum = new double[Sensor.count()];
+        // bands[sensor][band], created on the first reading of the sensor
+        private final long[][] bands = new long[Sensor.count()][];
+        private long firstTime = Long.MAX_VALUE;
+        private long lastTime = Long.MIN_VALUE;
+
+        StationSummary(int station, PollutantDescriptor[] descriptors) {
+            this.station = station;
+            this.descriptors = descriptors;
+        }
+
+        public int getStation() {
+            return station;
+        }
+
+        public long getCount(Sensor sensor) {
+            return counts[sensor.id()];
+        }
+
+        public double getMin(Sensor sensor) {
+            return counts[sensor.id()] == 0 ? Double.NaN : min[sensor.id()];
+        }
+
+        public double getMax(Sensor sensor) {
+            return counts[sensor.id()] == 0 ? Double.NaN : max[sensor.id()];
+        }
+
+        public double getMean(Sensor sensor) {
+            return counts[sensor.id()] == 0 ? Double.NaN : sum[sensor.id()] / counts[sensor.id()];
+        }
+
+        // readings per color band of the settings, empty if the sensor had no readings
+        public long[] getBands(Sensor sensor) {
+            final var perBand = bands[sensor.id()];
+            return perBand == null ? new long[0] : perBand.clone();
+        }
+
+        // epoch millis of the first and last timestamped reading, Long.MAX_VALUE and Long.MIN_VALUE without any
+        public long getFirstTime() {
+            return firstTime;
+        }
+
+        public long getLastTime() {
+            return lastTime;
+        }
+
+        void add(int sensor, double value, long time) {
+            var perBand = bands[sensor];
+            if (perBand == null) {
+                perBand = new long[descriptors[sensor].getBandCount()];
+                bands[sensor] = perBand;
+                min[sensor] = value;
+                max[sensor] = value;
+            } else {
+                min[sensor] = Math.min(min[sensor], value);
+                max[sensor] = Math.max(max[sensor], value);
+            }
+            perBand[descriptors[sensor].classify(value)]++;
+            counts[sensor]++;
+            sum[sensor] += value;
+            if (time != Long.MIN_VALUE) {
+                firstTime = Math.min(firstTime, time);
+                lastTime = Math.max(lastTime, time);
+            }
+        }
+
+        void merge(StationSummary other) {
+            for (int sensor = 0; sensor < counts.length; sensor++) {
+                final var perBand = other.bands[sensor];
+                if (perBand == null) {
+                    continue;
+                }
+                if (bands[sensor] == null) {
+                    bands[sensor] = perBand.clone();
+                    min[sensor] = other.min[sensor];
+                    max[sensor] = other.max[sensor];
+                } else {
+                    for (int band = 0; band < perBand.length; band++) {
+                        bands[sensor][band] += perBand[band];
+                    }
+                    min[sensor] = Math.min(min[sensor], other.min[sensor]);
+                    max[sensor] = Math.max(max[sensor], other.max[sensor]);
+                }
+                counts[sensor] += other.counts[sensor];
+                sum[sensor] += other.sum[sensor];
+            }
+            firstTime = Math.min(firstTime, other.firstTime);
+            lastTime = Math.max(lastTime, other.lastTime);
+        }
+    }
+
+    /*
+     * Imports historic exports and prints the band distribution of every station and sensor.
+     * Usage: BulkImport <settings file> <file> [more files]
+     * The bands come from the settings file, -Djava.util.concurrent.ForkJoinPool.common.parallelism limits the threads.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BulkImport <settings file> <file> [more files]");
+            return;
+        }
+        final var files = new ArrayList<Path>();
+        long bytes = 0;
+        for (int i = 1; i < args.length; i++) {
+            final var file = Paths.get(args[i]);
+            files.add(file);
+            bytes += Files.size(file);
+        }
+        final var bulkImport = new BulkImport(SettingsLoader.load(Paths.get(args[0])));
+        final long start = System.nanoTime();
+        final var summary = bulkImport.importFiles(files, ForkJoinPool.commonPool());
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        summary.print(System.out);
+        System.out.printf("%d readings (%d malformed lines) from %.1f MB in %.2f s: %.1f million readings/s, %.0f MB/s%n",
+                summary.getReadings(), summary.getMalformed(), bytes / 1e6, seconds,
+                summary.getReadings() / seconds / 1e6, bytes / 1e6 / seconds);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Follows a file in the ingestion line protocol like "tail -f": everything that is appended to the file
+ * is decoded and routed to the stations. When the file is truncated it is read again from the beginning.
+ */
+public final class FileTailSource extends IngestSource {
+    private static final long POLL_MILLIS = 200;
+    private final Path file;
+    private final boolean fromStart;
+
+    /*
+     * With fromStart the existing content of the file is ingested first, otherwise only new lines are.
+     */
+    public FileTailSource(Path file, boolean fromStart, IngestRouter router) {
+        super(file.getFileName().toString(), router);
+        this.file = file;
+        this.fromStart = fromStart;
+    }
+
+    @Override
+    protected void ingest() throws IOException {
+        final var buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = fromStart ? 0 : channel.size();
+            while (running) {
+                if (channel.size() < position) {
+                    // truncated or rotated in place
+                    position = 0;
+                    buffer.clear();
+                }
+                final int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    if (!sleep()) {
+                        return;
+                    }
+                    continue;
+                }
+                position += read;
+                buffer.flip();
+                decoder.decode(buffer, false);
+                if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                    // a single line longer than the buffer can never be decoded, skip it
+                    buffer.clear();
+                } else {
+                    buffer.compact();
+                }
+            }
+        }
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(POLL_MILLIS);
+            return running;
+        } catch (InterruptedException ex) {
+            return false;
+        }
+    }
+}
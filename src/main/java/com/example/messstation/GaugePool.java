@@ -0,0 +1,94 @@
+package com.example.messstation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/*
+ * Pool of SensorTiles per sensor. Building a Medusa DASHBOARD gauge with its skin is the most expensive part of
+ * opening a station window, so windows take their tiles from the pool when they are shown and return them when
+ * they are hidden. At most MAX_IDLE_PER_SENSOR tiles per sensor are kept, the pool only has to cover the windows
+ * that are closed and reopened, not every station.
+ * acquire() and release() are called on the FX thread, preload() fills the pool from a background thread.
+ */
+public final class GaugePool {
+    private static final int MAX_IDLE_PER_SENSOR = 16;
+    private static final GaugePool SHARED = new GaugePool();
+    private static final Metrics.Counter CREATED = Metrics.shared().counter(
+            "messstation_tiles_created_total", "Sensor tiles with a new gauge skin");
+    private static final Metrics.Counter REUSED = Metrics.shared().counter(
+            "messstation_tiles_reused_total", "Sensor tiles taken from the pool");
+
+    // idle tiles per sensor id
+    private final List<ConcurrentLinkedDeque<SensorTile>> idle = new ArrayList<>();
+    private final AtomicIntegerArray idleCounts = new AtomicIntegerArray(Sensor.count());
+
+    private GaugePool() {
+        for (int i = 0; i < Sensor.count(); i++) {
+            idle.add(new ConcurrentLinkedDeque<>());
+        }
+    }
+
+    public static GaugePool shared() {
+        return SHARED;
+    }
+
+    /*
+     * An idle tile of the sensor, or a new one if there is none.
+     */
+    public SensorTile acquire(Sensor sensor) {
+        final var tile = idle.get(sensor.id()).pollFirst();
+        if (tile != null) {
+            idleCounts.decrementAndGet(sensor.id());
+            REUSED.increment();
+            return tile;
+        }
+        CREATED.increment();
+        return new SensorTile(sensor);
+    }
+
+    /*
+     * Returns a tile that is no longer part of a scene. Tiles beyond the limit are left to the garbage collector.
+     */
+    public void release(SensorTile tile) {
+        final int id = tile.getSensor().id();
+        if (idleCounts.incrementAndGet(id) > MAX_IDLE_PER_SENSOR) {
+            idleCounts.decrementAndGet(id);
+            return;
+        }
+        idle.get(id).offerFirst(tile);
+    }
+
+    public int getIdleCount(Sensor sensor) {
+        return idleCounts.get(sensor.id());
+    }
+
+    /*
+     * Builds the tiles the given stations will need on a daemon thread, at most MAX_IDLE_PER_SENSOR per sensor,
+     * so the first windows open without building a single gauge on the FX thread. Returns the started thread.
+     */
+    public Thread preload(Collection<StationCore> stations) {
+        final var thread = new Thread(() -> {
+            final int[] needed = new int[Sensor.count()];
+            for (final StationCore station : stations) {
+                for (final Sensor sensor : station.getEnabledSensors()) {
+                    needed[sensor.id()]++;
+                }
+            }
+            // round robin over the sensors, so the tiles of the first stations are ready first
+            for (int round = 0; round < MAX_IDLE_PER_SENSOR && !Thread.currentThread().isInterrupted(); round++) {
+                for (final Sensor sensor : Sensor.all()) {
+                    if (round < needed[sensor.id()] && getIdleCount(sensor) < MAX_IDLE_PER_SENSOR) {
+                        CREATED.increment();
+                        release(new SensorTile(sensor));
+                    }
+                }
+            }
+        }, "messstation-preload");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.messstation;
+
+import eu.hansolo.medusa.Gauge;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleConsumer;
+
+import javafx.animation.AnimationTimer;
+
+/*
+ * Coalesces gauge updates coming from the sampling threads.
+ * Producers only write the latest value of a gauge into an atomic slot and mark it dirty, they never touch the FX thread.
+ * One AnimationTimer for the whole application applies the dirty slots at most once per frame,
+ * values that were overwritten in between are simply skipped. Stations that are hidden or minimized are not
+ * applied at all, their slots stay dirty and are applied once when the window is visible again.
+ * The FX thread time spent per frame, the applied updates and the values overwritten before a frame are kept in Metrics.
+ */
+public final class GaugeUpdateCoalescer {
+    // Medusa animates a value change for 800 ms, faster updates are applied without animation so they do not pile up
+    private static final long ANIMATION_NANOS = TimeUnit.MILLISECONDS.toNanos(800);
+    private static final GaugeUpdateCoalescer SHARED = new GaugeUpdateCoalescer();
+    private static final Metrics.Histogram FRAME_DURATION = Metrics.shared().histogram(
+            "messstation_fx_apply_duration_seconds", "FX thread time spent applying gauge updates in one frame");
+    private static final Metrics.Counter APPLIED = Metrics.shared().counter(
+            "messstation_gauge_updates_applied_total", "Values applied to gauges");
+    private static final Metrics.Counter COALESCED = Metrics.shared().counter(
+            "messstation_gauge_updates_coalesced_total", "Values overwritten by a newer value before they were applied");
+
+    private final List<Group> groups = new CopyOnWriteArrayList<>();
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            applyDirty(now);
+        }
+    };
+    private boolean running;
+
+    private GaugeUpdateCoalescer() {
+    }
+
+    public static GaugeUpdateCoalescer shared() {
+        return SHARED;
+    }
+
+    /*
+     * Registers the gauges of one window. The visibility check is evaluated on the FX thread every frame
+     * in which the group has dirty slots. Must be called on the FX thread.
+     */
+    public Group register(BooleanSupplier visible) {
+        final var group = new Group(visible);
+        groups.add(group);
+        if (!running) {
+            timer.start();
+            running = true;
+        }
+        return group;
+    }
+
+    public void unregister(Group group) {
+        groups.remove(group);
+    }
+
+    private void applyDirty(long now) {
+        final long start = System.nanoTime();
+        int applied = 0;
+        for (final Group group : groups) {
+            if (group.dirty.get() && group.visible.getAsBoolean()) {
+                group.dirty.set(false);
+                for (final Slot slot : group.slots) {
+                    applied += slot.apply(now) ? 1 : 0;
+                }
+            }
+        }
+        // frames without updates are not recorded, they would only hide the cost of the real ones
+        if (applied > 0) {
+            APPLIED.add(applied);
+            FRAME_DURATION.recordSince(start);
+        }
+    }
+
+    /*
+     * All slots of one station window, they share the visibility check and a group dirty flag
+     * so frames without new values skip the window with a single read.
+     */
+    public static final class Group {
+        private final BooleanSupplier visible;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final List<Slot> slots = new CopyOnWriteArrayList<>();
+
+        private Group(BooleanSupplier visible) {
+            this.visible = visible;
+        }
+
+        public Slot addSlot(Gauge gauge, DoubleConsumer apply) {
+            final var slot = new Slot(this, gauge, apply);
+            slots.add(slot);
+            return slot;
+        }
+
+        public void removeSlot(Slot slot) {
+            slots.remove(slot);
+        }
+    }
+
+    /*
+     * Latest value of a single gauge. offer() may be called from any thread.
+     */
+    public static final class Slot {
+        private final Group group;
+        private final Gauge gauge;
+        private final DoubleConsumer apply;
+        private final AtomicLong bits = new AtomicLong();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        // only touched on the FX thread
+        private long lastApplied = Long.MIN_VALUE / 2;
+
+        private Slot(Group group, Gauge gauge, DoubleConsumer apply) {
+            this.group = group;
+            this.gauge = gauge;
+            this.apply = apply;
+        }
+
+        public void offer(double value) {
+            bits.set(Double.doubleToRawLongBits(value));
+            if (dirty.getAndSet(true)) {
+                COALESCED.increment();
+            }
+            group.dirty.set(true);
+        }
+
+        private boolean apply(long now) {
+            if (!dirty.getAndSet(false)) {
+                return false;
+            }
+            gauge.setAnimated(now - lastApplied >= ANIMATION_NANOS);
+            lastApplied = now;
+            apply.accept(Double.longBitsToDouble(bits.get()));
+            return true;
+        }
+    }
+}
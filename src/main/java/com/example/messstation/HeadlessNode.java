@@ -0,0 +1,42 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Runs the stations of a StationNode without any window and without starting the JavaFX toolkit, e.g. as a pure
+ * data collection node that records, archives or streams the readings. Started by the Launcher with --headless,
+ * takes the same options as the application (see StationNode) and runs until the JVM is terminated.
+ * No JavaFX class is loaded, so no display is needed and the toolkit costs neither startup time nor memory.
+ */
+public final class HeadlessNode {
+
+    private HeadlessNode() {
+    }
+
+    /*
+     * With --run-seconds=<seconds> the node stops by itself after that time, e.g. for the training run
+     * that writes a class data sharing archive, which is only written on a regular exit.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final var named = StationNode.parseNamed(args);
+        final var node = new StationNode(named);
+        final var stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            // the same shutdown as the application, the node stops the sampling before it closes anything
+            node.close();
+            stopped.countDown();
+        }, "messstation-shutdown"));
+        node.start();
+        System.out.println("Running " + node.getStations().size() + " stations headless");
+        if (named.containsKey("run-seconds")) {
+            if (!stopped.await(Long.parseLong(named.get("run-seconds")), TimeUnit.SECONDS)) {
+                // runs the shutdown hook
+                System.exit(0);
+            }
+        } else {
+            stopped.await();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.messstation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Routes decoded readings to the ReadingQueue of their station.
+ * Stations are addressed by a numeric id, so the ingestion path never has to look up names.
+ */
+public final class IngestRouter {
+    private volatile ReadingQueue[] queues = new ReadingQueue[0];
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder unknown = new LongAdder();
+
+    /*
+     * Replaces the source of the station with a new ReadingQueue that receives all readings for the station id.
+     */
+    public synchronized ReadingQueue register(int stationId, StationCore station, int capacity, BackpressurePolicy policy) {
+        final var queue = new ReadingQueue(capacity, policy);
+        final var current = queues;
+        final var updated = stationId < current.length ? current.clone() : Arrays.copyOf(current, stationId + 1);
+        updated[stationId] = queue;
+        station.setSource(queue);
+        queues = updated;
+        return queue;
+    }
+
+    public void accept(int stationId, int sensorId, double value, long time) {
+        final var current = queues;
+        if (stationId < 0 || stationId >= current.length || current[stationId] == null) {
+            unknown.increment();
+            return;
+        }
+        if (current[stationId].offer(sensorId, value, time)) {
+            accepted.increment();
+        }
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    // readings for station ids that are not registered
+    public long getUnknown() {
+        return unknown.sum();
+    }
+
+    public long getDropped() {
+        long dropped = 0;
+        for (final ReadingQueue queue : queues) {
+            if (queue != null) {
+                dropped += queue.getDropped();
+            }
+        }
+        return dropped;
+    }
+
+    public void close() {
+        for (final ReadingQueue queue : queues) {
+            if (queue != null) {
+                queue.close();
+            }
+        }
+    }
+}
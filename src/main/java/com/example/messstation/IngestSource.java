@@ -0,0 +1,68 @@
+package com.example.messstation;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/*
+ * Base of the sources that receive readings on their own thread, e.g. from a file or a socket.
+ * They decode the bytes with a ReadingDecoder and hand the readings to the IngestRouter, which queues them per station;
+ * the ReadingQueue of a station is the MeasurementSource that the engine polls.
+ */
+public abstract class IngestSource implements Closeable {
+    // size of the reusable read buffers, also the longest accepted line
+    protected static final int BUFFER_BYTES = 64 * 1024;
+    protected final IngestRouter router;
+    protected final ReadingDecoder decoder;
+    private final String name;
+    private Thread thread;
+    protected volatile boolean running;
+
+    protected IngestSource(String name, IngestRouter router) {
+        this.name = name;
+        this.router = router;
+        this.decoder = new ReadingDecoder(router);
+    }
+
+    public ReadingDecoder getDecoder() {
+        return decoder;
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(() -> {
+            try {
+                ingest();
+            } catch (IOException ex) {
+                if (running) {
+                    System.err.println("Ingestion " + name + " stopped: " + ex.getMessage());
+                }
+            }
+        }, "messstation-ingest-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    protected synchronized boolean isStarted() {
+        return thread != null;
+    }
+
+    /*
+     * Reads and decodes input until the source is closed. Runs on the ingestion thread.
+     */
+    protected abstract void ingest() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        final Thread current;
+        synchronized (this) {
+            current = thread;
+        }
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/*
+ * Entry point of the application. With --headless the stations run as a HeadlessNode, otherwise the JavaFX
+ * application (Main) is launched. This class does not extend Application, so the headless path never loads
+ * javafx.graphics; Main is only loaded when the windows are wanted.
+ *
+ * For fast startup on small boxes the headless node can run from a jlink image (mvn javafx:jlink) with a
+ * class data sharing archive: run it once with -XX:ArchiveClassesAtExit=headless.jsa --headless --run-seconds=10
+ * and start it afterwards with -XX:SharedArchiveFile=headless.jsa, the archive holds exactly the classes of the
+ * headless path.
+ */
+public final class Launcher {
+
+    private Launcher() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (Arrays.asList(args).contains("--headless")) {
+            HeadlessNode.main(args);
+        } else {
+            Main.main(args);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Command line load test for the MeasurementEngine without any window.
+ * Usage: LoadSimulation [stations] [seconds] [settings file] [history capacity] [seed]
+ * Creates the given number of simulated stations (default 10000), runs them at the normal 5 second cadence
+ * and prints ticks/sec and per-tick latency after every tick, so it can be shown that the engine keeps up.
+ * With a seed every station walks with its own seeded RandomWalkSource, so the readings are reproducible.
+ */
+public final class LoadSimulation {
+
+    private LoadSimulation() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final int stationCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        final int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        final Path settings = args.length > 2 ? Paths.get(args[2]) : Paths.get("settings/default_settings.json");
+        final int history = args.length > 3 ? Integer.parseInt(args[3]) : StationCore.DEFAULT_HISTORY_CAPACITY;
+        final Long seed = args.length > 4 ? Long.valueOf(args[4]) : null;
+
+        final List<StationCore> cores = new ArrayList<>(stationCount);
+        for (int i = 0; i < stationCount; i++) {
+            final var core = new StationCore(settings, history);
+            if (seed != null) {
+                core.setSource(new RandomWalkSource(SimulationEngine.stationSeed(seed, i)));
+            }
+            cores.add(core);
+        }
+        final var engine = new MeasurementEngine();
+        engine.startAll(cores);
+        System.out.println("Running " + engine.getStationCount() + " stations for " + seconds + " s");
+
+        final long end = System.currentTimeMillis() + seconds * 1000L;
+        long reported = 0;
+        while (System.currentTimeMillis() < end) {
+            Thread.sleep(500);
+            final var stats = engine.getStats();
+            if (stats.getTicks() != reported) {
+                reported = stats.getTicks();
+                System.out.println(stats);
+            }
+        }
+        engine.shutdown();
+    }
+}
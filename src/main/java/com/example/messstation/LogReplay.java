@@ -0,0 +1,117 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Streams a MeasurementLog back into a StationCore, so the gauges of the station show the recorded readings.
+ * The log is memory-mapped and read record by record without copying. All records with the same timestamp
+ * form one tick and are published together; between ticks the replay waits for the recorded time difference
+ * divided by the speed. A speed of 17280 replays a day in 5 seconds, a speed of 0 or less replays without waiting.
+ */
+public final class LogReplay implements Runnable {
+    // largest mapped window, a multiple of the record size so no record spans two windows
+    private static final long WINDOW_BYTES = (Integer.MAX_VALUE / MeasurementLog.RECORD_BYTES) * (long) MeasurementLog.RECORD_BYTES;
+
+    private final Path file;
+    private final StationCore station;
+    private final double speed;
+    private volatile boolean cancelled;
+    private volatile Thread thread;
+
+    public LogReplay(Path file, StationCore station, double speed) {
+        this.file = file;
+        this.station = station;
+        this.speed = speed;
+    }
+
+    /*
+     * Runs the replay on a new daemon thread and returns it.
+     */
+    public Thread start() {
+        final var started = new Thread(this, "messstation-replay-" + station.getName());
+        started.setDaemon(true);
+        thread = started;
+        started.start();
+        return started;
+    }
+
+    /*
+     * Stops the replay, a replay started with start() also stops waiting for its next tick.
+     * No reading is published into the station after this returns, except by a tick that was already being published.
+     */
+    public void cancel() {
+        cancelled = true;
+        final var running = thread;
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            replay();
+        } catch (IOException ex) {
+            // cancel() interrupts the thread, which also closes the channel
+            if (!cancelled) {
+                System.err.println("Replay of " + file + " failed: " + ex.getMessage());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Replays the whole log on the calling thread.
+     */
+    public void replay() throws IOException, InterruptedException {
+        final var sensors = Sensor.all();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MeasurementLog.checkHeader(channel, file);
+            final long size = channel.size();
+            final long end = size - (size - MeasurementLog.HEADER_BYTES) % MeasurementLog.RECORD_BYTES;
+            long currentTime = Long.MIN_VALUE;
+            for (long position = MeasurementLog.HEADER_BYTES; position < end && !cancelled; position += WINDOW_BYTES) {
+                final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(WINDOW_BYTES, end - position));
+                window.order(ByteOrder.LITTLE_ENDIAN);
+                while (window.hasRemaining() && !cancelled) {
+                    final long time = window.getLong();
+                    final int sensorId = window.getInt();
+                    final double value = window.getDouble();
+                    if (time != currentTime) {
+                        if (currentTime != Long.MIN_VALUE) {
+                            station.publish();
+                            pause(time - currentTime);
+                        }
+                        currentTime = time;
+                    }
+                    if (cancelled) {
+                        return;
+                    }
+                    if (sensorId >= 0 && sensorId < sensors.length) {
+                        station.setValue(sensors[sensorId], value, time);
+                    }
+                }
+            }
+            if (currentTime != Long.MIN_VALUE && !cancelled) {
+                station.publish();
+            }
+        }
+    }
+
+    private void pause(long recordedMillis) throws InterruptedException {
+        if (speed <= 0 || recordedMillis <= 0) {
+            return;
+        }
+        final long nanos = (long) (recordedMillis * 1_000_000 / speed);
+        if (nanos > 0) {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        }
+    }
+}
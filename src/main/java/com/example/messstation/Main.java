@@ -1,56 +1,62 @@
 package com.example.messstation;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import javafx.application.Application;
 import javafx.application.Platform;
-import javafx.geometry.Pos;
 import javafx.scene.Scene;
-import javafx.scene.control.Button;
-import javafx.scene.layout.FlowPane;
 import javafx.stage.Stage;
 
-// Main extends Application class. It's the main entry point of the application
+// Main extends Application class. It's the entry point of the windowed application, started by the Launcher
 public class Main extends Application {
 
-  //  private static int count = 1;
-  //  private final List<Messstation> messstationen = new ArrayList<>();
-  private final Messstation station1 = new Messstation(Paths.get("settings/messstation.xml"));
-  private final Messstation station2 = new Messstation(Paths.get("settings/messstation2.json"));
-  private final Messstation station3 = new Messstation(Paths.get("settings/messstation3.json"));
+  // windows are created on first open, null until then
+  private final List<Messstation> messstationen = new ArrayList<>();
+  private StationNode node;
+  private List<StationCore> messstationenCores = List.of();
+  private Path replayDir;
+  private double replaySpeed = 1;
 
-  public Main() throws IOException {
+  /* Loads the stations and starts the services of the StationNode before the main window is shown,
+   * see StationNode for the options.
+   * With --replay-dir=<directory> an opened station replays its recorded log at --replay-speed (default 1) instead.
+   * With --preload the gauges of the first stations are built on a background thread while the menu is shown,
+   * so opening them does not build any gauge on the FX thread.
+   * Started by the Launcher, which runs a HeadlessNode instead when --headless is given.
+   */
+  @Override
+  public void init() throws IOException {
+    final var named = getParameters().getNamed();
+    // the windows are stages, so only the headless cores are created here and the windows in start()
+    node = new StationNode(named);
+    messstationenCores = node.getStations();
+    if (named.containsKey("preload") || getParameters().getUnnamed().contains("--preload")) {
+      GaugePool.shared().preload(messstationenCores);
+    }
+    if (named.containsKey("replay-dir")) {
+      replayDir = Paths.get(named.get("replay-dir"));
+      replaySpeed = Double.parseDouble(named.getOrDefault("replay-speed", "1"));
+    }
   }
-  //  public Main(String... settings) throws IOException, ParserConfigurationException, SAXException {
-  //    for (final String setting : settings) {
-  //      messstationen.add(new Messstation(Paths.get(setting)));
-  //    }
-  //  }
 
-  // creating the primary stage and adding a button for each of the 3 Messstation instances initialized in the class head.
+  /* creating the primary stage with the overview of all loaded stations, a station window is created when its row is
+   * clicked for the first time. All stations are sampled from the start so the overview shows their readings,
+   * except in replay mode where only opened stations replay their logs.
+   */
   @Override
   public void start(Stage stage) {
-    final FlowPane root = new FlowPane();
-    //    for (Messstation messstation : messstationen) {
-    //      final Button buttonStation = new Button();
-    //      buttonStation.setText("Station " + count++);
-    //      handleButton(stage, buttonStation, messstation);
-    //      root.getChildren().add(buttonStation);
-    //    }
-    final var buttonStation1 = new Button();
-    buttonStation1.setText("Station 1");
-    handleButton(stage, buttonStation1, station1);
-    final var buttonStation2 = new Button();
-    buttonStation2.setText("Station 2");
-    handleButton(stage, buttonStation2, station2);
-    final var buttonStation3 = new Button();
-    buttonStation3.setText("Station 3");
-    handleButton(stage, buttonStation3, station3);
-    root.getChildren().add(buttonStation1);
-    root.getChildren().add(buttonStation2);
-    root.getChildren().add(buttonStation3);
-    root.setAlignment(Pos.CENTER);
-    final var scene = new Scene(root, 450, 250);
+    for (int i = 0; i < messstationenCores.size(); i++) {
+      messstationen.add(null);
+    }
+    if (replayDir == null) {
+      node.start();
+    }
+    final var overview = new StationOverview(messstationenCores, index -> openStation(stage, index));
+    final var scene = new Scene(overview, 900, 500);
     stage.setTitle("Dashboard main menu");
     stage.setScene(scene);
     // closing the main window closes all other windows and terminates the application
@@ -65,27 +71,43 @@ public class Main extends Application {
     stage.show();
   }
 
-  /* Setting the onClickAction for all buttons initialized in  the start method.
-   * If a button is clicked a new Messstation instance is initialized the button will be set inactive, so you can't restart the instance once it is running.
-   * Closing the window of the Messstation instance will set the button active again.
+  /* Opens the window of the station with the given index, the Messstation instance is initialized on first use.
+   * A window that is already open is brought to the front instead, so you can't restart the instance once it is running.
    */
-  private void handleButton(Stage stage, Button button, Messstation station) {
-    button.setOnAction(event -> {
-      // New window (Stage)
-      station.setTitle(button.getText());
-      station.setScene(station.getScene());
-      // Set position of second window, related to primary window.
-      station.setX(stage.getX() + 200);
-      station.setY(stage.getY() + 100);
-      station.setOnCloseRequest(event1 -> button.setDisable(false));
-      station.show();
+  private void openStation(Stage stage, int index) {
+    Messstation station = messstationen.get(index);
+    if (station == null) {
+      station = new Messstation(messstationenCores.get(index));
+      messstationen.set(index, station);
+    }
+    if (station.isShowing()) {
+      station.toFront();
+      return;
+    }
+    // New window (Stage)
+    station.setTitle("Station " + (index + 1));
+    // Set position of second window, related to primary window.
+    station.setX(stage.getX() + 200);
+    station.setY(stage.getY() + 100);
+    station.show();
+    final var log = replayDir == null ? null : MeasurementLog.fileFor(replayDir, station.getCore());
+    if (log != null && Files.exists(log)) {
+      station.replay(log, replaySpeed);
+    } else {
       station.play();
-      button.setDisable(true);
-    });
+    }
   }
 
   @Override
   public void stop() {
+    for (final Messstation station : messstationen) {
+      if (station != null) {
+        station.stopReplay();
+      }
+    }
+    if (node != null) {
+      node.close();
+    }
     Platform.exit();
   }
 
@@ -0,0 +1,207 @@
+package com.example.messstation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Drives the sampling of StationCore instances independent of the JavaFX pulse.
+ * All started stations share one batched tick: a single scheduler thread fires every 5 seconds and
+ * the stations are ticked in chunks spread over a ForkJoinPool, so thousands of stations cost one
+ * timer instead of one Timeline each. The engine records ticks/sec and per-tick latency in TickStats
+ * and the latency distributions of the batched tick, the single station ticks and the tick lag in Metrics.
+ */
+public class MeasurementEngine {
+    public static final long TICK_MILLIS = 5000;
+    // number of stations ticked by one fork-join task
+    private static final int CHUNK_SIZE = 256;
+    private static final MeasurementEngine SHARED = new MeasurementEngine();
+    private static final Metrics.Histogram TICK_DURATION = Metrics.shared().histogram(
+            "messstation_tick_duration_seconds", "Duration of one batched tick over all running stations");
+    private static final Metrics.Histogram TICK_LAG = Metrics.shared().histogram(
+            "messstation_tick_lag_seconds", "How late a scheduled tick started");
+    private static final Metrics.Histogram STATION_TICK_DURATION = Metrics.shared().histogram(
+            "messstation_station_tick_duration_seconds", "Duration of the tick of a single station");
+    private static final Metrics.Counter STATION_TICK_FAILURES = Metrics.shared().counter(
+            "messstation_station_tick_failures_total", "Station ticks that failed with an exception");
+
+    private final long tickNanos;
+    private final ForkJoinPool workers;
+    private final ScheduledExecutorService scheduler;
+    private final Set<StationCore> stations = new LinkedHashSet<>();
+    // copy of the station list used by the tick, rebuilt only after stations were added or removed
+    private volatile StationCore[] snapshot = new StationCore[0];
+    private final TickStats stats = new TickStats();
+    private final AtomicReference<ScheduledFuture<?>> ticker = new AtomicReference<>();
+    private final AtomicLong nextTickNanos = new AtomicLong();
+
+    public MeasurementEngine() {
+        this(TICK_MILLIS, Runtime.getRuntime().availableProcessors());
+    }
+
+    public MeasurementEngine(long tickMillis, int parallelism) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.workers = new ForkJoinPool(parallelism);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "messstation-engine");
+            // the engine must never keep the application alive once the windows are closed
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*
+     * The engine used by the JavaFX application.
+     */
+    public static MeasurementEngine shared() {
+        return SHARED;
+    }
+
+    /*
+     * Adds the station to the batched tick. Starting an already running station does nothing.
+     * The shared timer is started together with the first station.
+     */
+    public void start(StationCore station) {
+        synchronized (stations) {
+            if (!stations.add(station)) {
+                return;
+            }
+            snapshot = stations.toArray(new StationCore[0]);
+        }
+        startTicker();
+    }
+
+    /*
+     * Adds many stations at once, the snapshot is rebuilt a single time.
+     */
+    public void startAll(List<StationCore> cores) {
+        register(cores);
+        startTicker();
+    }
+
+    /*
+     * Adds stations without starting the timer, they are only ticked by tickNow().
+     */
+    public void register(List<StationCore> cores) {
+        synchronized (stations) {
+            stations.addAll(cores);
+            snapshot = stations.toArray(new StationCore[0]);
+        }
+    }
+
+    public void stop(StationCore station) {
+        synchronized (stations) {
+            if (stations.remove(station)) {
+                snapshot = stations.toArray(new StationCore[0]);
+            }
+        }
+    }
+
+    public boolean isRunning(StationCore station) {
+        synchronized (stations) {
+            return stations.contains(station);
+        }
+    }
+
+    public int getStationCount() {
+        return snapshot.length;
+    }
+
+    public TickStats getStats() {
+        return stats;
+    }
+
+    public void shutdown() {
+        final var future = ticker.getAndSet(null);
+        if (future != null) {
+            future.cancel(false);
+        }
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /*
+     * Waits after shutdown() until a tick that was already running has completed, so its listeners are not called
+     * anymore. Returns false if the tick did not complete in time.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return scheduler.awaitTermination(timeout, unit) && workers.awaitTermination(timeout, unit);
+    }
+
+    /*
+     * Runs one batched tick over all running stations on the calling thread, independent of the timer.
+     * Used by benchmarks and load tests that want to drive the engine as fast as possible.
+     */
+    public void tickNow() {
+        tickAll(System.nanoTime(), 0);
+    }
+
+    private void startTicker() {
+        if (ticker.get() != null) {
+            return;
+        }
+        synchronized (ticker) {
+            if (ticker.get() == null) {
+                nextTickNanos.set(System.nanoTime() + tickNanos);
+                ticker.set(scheduler.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS));
+            }
+        }
+    }
+
+    /*
+     * One batched tick over all running stations. Runs on the scheduler thread, the stations
+     * themselves are ticked on the fork-join workers. A slow station delays only its own chunk.
+     */
+    private void tick() {
+        final long start = System.nanoTime();
+        final long lag = Math.max(0, start - nextTickNanos.getAndAdd(tickNanos));
+        TICK_LAG.record(lag);
+        tickAll(start, lag);
+    }
+
+    private void tickAll(long start, long lag) {
+        final var current = snapshot;
+        final int chunks = (current.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunks <= 1) {
+            tickRange(current, 0, current.length);
+        } else {
+            final var tasks = new ArrayList<ForkJoinTask<?>>(chunks);
+            for (int from = 0; from < current.length; from += CHUNK_SIZE) {
+                final int begin = from;
+                final int end = Math.min(current.length, from + CHUNK_SIZE);
+                tasks.add(workers.submit(() -> tickRange(current, begin, end)));
+            }
+            for (final var task : tasks) {
+                task.join();
+            }
+        }
+        final long latency = System.nanoTime() - start;
+        stats.record(current.length, latency, Math.max(0, lag));
+        TICK_DURATION.record(latency);
+    }
+
+    private static void tickRange(StationCore[] cores, int from, int to) {
+        long start = System.nanoTime();
+        for (int i = from; i < to; i++) {
+            try {
+                cores[i].tick();
+            } catch (RuntimeException ex) {
+                STATION_TICK_FAILURES.increment();
+                // one broken station or listener must not stop the tick of all other stations
+                System.err.println("Tick of station " + cores[i].getName() + " failed: " + ex);
+            }
+            final long end = System.nanoTime();
+            STATION_TICK_DURATION.record(end - start);
+            start = end;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.messstation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Append-only binary log of the readings of one station.
+ * The file starts with an 8 byte header (magic "MSLG" and the format version) followed by fixed 20 byte records:
+ * timestamp in epoch millis (long), sensor id (int) and value (double), all little endian.
+ * Every tick is written with a single FileChannel write from a reused buffer. The channel is forced to disk
+ * at most once per sync interval, so a crash loses at most the readings of that interval.
+ * A torn record at the end of an existing file is cut off when the log is opened again.
+ */
+public final class MeasurementLog implements StationListener, Closeable {
+    public static final String EXTENSION = ".mlog";
+    static final int MAGIC = 0x4D534C47;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int RECORD_BYTES = 20;
+    private static final long DEFAULT_SYNC_MILLIS = 1000;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(Sensor.count() * RECORD_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private final long syncMillis;
+    private long lastSync = System.currentTimeMillis();
+    private boolean dirty;
+
+    public MeasurementLog(Path file) throws IOException {
+        this(file, DEFAULT_SYNC_MILLIS);
+    }
+
+    public MeasurementLog(Path file, long syncMillis) throws IOException {
+        this.file = file;
+        this.syncMillis = syncMillis;
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final long size = channel.size();
+        if (size == 0) {
+            final var header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } else {
+            checkHeader(channel, file);
+            // cut off a record that was only partly written before a crash
+            channel.truncate(size - (size - HEADER_BYTES) % RECORD_BYTES);
+        }
+        channel.position(channel.size());
+    }
+
+    /*
+     * The log file of a station inside a log directory.
+     */
+    public static Path fileFor(Path directory, StationCore station) {
+        return directory.resolve(station.getName() + EXTENSION);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /*
+     * Appends the current readings of all enabled sensors of the station.
+     */
+    @Override
+    public void onTick(StationCore station) {
+        try {
+            append(station);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public synchronized void append(StationCore station) throws IOException {
+        final long time = station.getLastTickMillis();
+        buffer.clear();
+        for (final Sensor sensor : station.getEnabledSensors()) {
+            buffer.putLong(time).putInt(sensor.id()).putDouble(station.getValue(sensor));
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        dirty = true;
+        if (System.currentTimeMillis() - lastSync >= syncMillis) {
+            sync();
+        }
+    }
+
+    /*
+     * Forces all written records to disk.
+     */
+    public synchronized void sync() throws IOException {
+        if (dirty) {
+            channel.force(false);
+            dirty = false;
+        }
+        lastSync = System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sync();
+        channel.close();
+    }
+
+    static void checkHeader(FileChannel channel, Path file) throws IOException {
+        final var header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // read until the header is complete or the file ends
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException(file + " is not a measurement log!");
+        }
+    }
+}
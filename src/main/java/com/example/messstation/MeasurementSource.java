@@ -0,0 +1,30 @@
+package com.example.messstation;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/*
+ * Where the readings of a station come from. The MeasurementEngine polls the source of every station once per tick,
+ * the source writes all readings that became available since the last poll into the station with StationCore.setValue().
+ * Sources that receive data on their own threads (files, sockets) buffer it in a bounded ReadingQueue until the poll.
+ */
+public interface MeasurementSource extends Closeable {
+
+    /*
+     * Called once when the source is set on a station, e.g. to provide start values.
+     */
+    default void attach(StationCore station) {
+    }
+
+    /*
+     * Called when a sensor is enabled on a running station, e.g. to provide its start value.
+     */
+    default void enable(StationCore station, Sensor sensor) {
+    }
+
+    void poll(StationCore station);
+
+    @Override
+    default void close() throws IOException {
+    }
+}
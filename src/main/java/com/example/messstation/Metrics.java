@@ -0,0 +1,261 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/*
+ * Lock-free registry of the counters and latency histograms of the application.
+ * Metrics are created once, usually in a static field of the class that updates them, and updated from any thread
+ * without locking: counters are LongAdders, histograms count into fixed log-linear buckets of an AtomicLongArray.
+ * The registry is read by the JMX bean (see MetricsJmx) and by the Prometheus text endpoint (see MetricsServer).
+ *
+ * Names follow the Prometheus conventions, e.g. messstation_tick_duration_seconds. Histograms record nanoseconds
+ * and are reported in seconds.
+ */
+public final class Metrics {
+    public static final String OBJECT_NAME = "com.example.messstation:type=Metrics";
+    private static final Metrics SHARED = new Metrics();
+
+    // sorted, so the text output is stable between scrapes
+    private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+    private final AtomicBoolean registered = new AtomicBoolean();
+
+    public static Metrics shared() {
+        return SHARED;
+    }
+
+    /*
+     * The counter with the given name, it is created on the first call.
+     */
+    public Counter counter(String name, String help) {
+        return (Counter) metrics.computeIfAbsent(name, key -> new Counter(key, help));
+    }
+
+    /*
+     * A counter whose value is kept elsewhere, e.g. the readings dropped by the ReadingQueues of a router.
+     * A later registration under the same name replaces the supplier.
+     */
+    public void counter(String name, String help, LongSupplier value) {
+        metrics.put(name, new SuppliedCounter(name, help, value));
+    }
+
+    public Histogram histogram(String name, String help) {
+        return (Histogram) metrics.computeIfAbsent(name, key -> new Histogram(key, help));
+    }
+
+    public Metric get(String name) {
+        return metrics.get(name);
+    }
+
+    public Iterable<Metric> all() {
+        return metrics.values();
+    }
+
+    /*
+     * Registers the registry at the platform MBeanServer, calling it again does nothing.
+     */
+    public void registerMBean() {
+        if (!registered.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsJmx(this), new ObjectName(OBJECT_NAME));
+        } catch (JMException ex) {
+            System.err.println("Metrics are not available over JMX: " + ex.getMessage());
+        }
+    }
+
+    /*
+     * Writes all metrics in the Prometheus text exposition format, version 0.0.4.
+     */
+    public void writePrometheus(Appendable out) throws IOException {
+        for (final Metric metric : metrics.values()) {
+            metric.writePrometheus(out);
+        }
+    }
+
+    public abstract static class Metric {
+        private final String name;
+        private final String help;
+
+        private Metric(String name, String help) {
+            this.name = name;
+            this.help = help;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getHelp() {
+            return help;
+        }
+
+        abstract void writePrometheus(Appendable out) throws IOException;
+
+        void writeHeader(Appendable out, String type) throws IOException {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        }
+    }
+
+    public static final class Counter extends Metric {
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name, String help) {
+            super(name, help);
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long delta) {
+            value.add(delta);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        @Override
+        void writePrometheus(Appendable out) throws IOException {
+            writeHeader(out, "counter");
+            out.append(getName()).append(' ').append(Long.toString(get())).append('\n');
+        }
+    }
+
+    public static final class SuppliedCounter extends Metric {
+        private final LongSupplier value;
+
+        private SuppliedCounter(String name, String help, LongSupplier value) {
+            super(name, help);
+            this.value = value;
+        }
+
+        public long get() {
+            return value.getAsLong();
+        }
+
+        @Override
+        void writePrometheus(Appendable out) throws IOException {
+            writeHeader(out, "counter");
+            out.append(getName()).append(' ').append(Long.toString(get())).append('\n');
+        }
+    }
+
+    /*
+     * Latency histogram in the style of HdrHistogram: values below 16 ns have their own bucket, above that every
+     * power of two is split into 16 linear sub-buckets, so every recorded value is reported with an error below
+     * 1/16 (6.25 %) from nanoseconds up to hours in 976 buckets. Recording is a few atomic adds and never allocates.
+     */
+    public static final class Histogram extends Metric {
+        private static final int SUB_BITS = 4;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_COUNT;
+        private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram(String name, String help) {
+            super(name, help);
+        }
+
+        public void record(long nanos) {
+            final long value = Math.max(0, nanos);
+            counts.incrementAndGet(bucket(value));
+            count.increment();
+            sum.add(value);
+            if (value > max.get()) {
+                max.accumulateAndGet(value, Math::max);
+            }
+        }
+
+        /*
+         * Records the time passed since the given System.nanoTime() value.
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSumNanos() {
+            return sum.sum();
+        }
+
+        public long getMaxNanos() {
+            return max.get();
+        }
+
+        /*
+         * Upper bound of the bucket holding the given quantile, 0 if nothing was recorded.
+         * The buckets are read one by one while others may still record, which is fine for monitoring.
+         */
+        public long quantileNanos(double quantile) {
+            final long total = getCount();
+            if (total == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+
+        static int bucket(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+            final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+            return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) & (SUB_COUNT - 1));
+        }
+
+        static long upperBound(int bucket) {
+            if (bucket < SUB_COUNT) {
+                return bucket;
+            }
+            final int shift = bucket / SUB_COUNT - 1;
+            final long lower = (long) (SUB_COUNT + bucket % SUB_COUNT) << shift;
+            return lower + (1L << shift) - 1;
+        }
+
+        // reported as a Prometheus summary, the quantiles are computed here instead of by the server
+        @Override
+        void writePrometheus(Appendable out) throws IOException {
+            writeHeader(out, "summary");
+            for (final double quantile : QUANTILES) {
+                out.append(getName()).append("{quantile=\"").append(Double.toString(quantile)).append("\"} ")
+                        .append(seconds(quantileNanos(quantile))).append('\n');
+            }
+            out.append(getName()).append("_sum ").append(seconds(getSumNanos())).append('\n');
+            out.append(getName()).append("_count ").append(Long.toString(getCount())).append('\n');
+            out.append("# TYPE ").append(getName()).append("_max gauge\n");
+            out.append(getName()).append("_max ").append(seconds(getMaxNanos())).append('\n');
+        }
+
+        private static String seconds(long nanos) {
+            return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.messstation;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+
+/*
+ * Shows the Metrics registry as read-only attributes of one MBean, e.g. in JConsole or VisualVM.
+ * A counter becomes one long attribute, a histogram one attribute per statistic in milliseconds,
+ * e.g. messstation_tick_duration_seconds.p99Millis. The attribute list follows metrics registered later on.
+ */
+final class MetricsJmx implements DynamicMBean {
+    private static final String[] HISTOGRAM_STATS = {"count", "meanMillis", "p50Millis", "p90Millis", "p99Millis", "maxMillis"};
+
+    private final Metrics metrics;
+
+    MetricsJmx(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        final int dot = attribute.lastIndexOf('.');
+        final var metric = metrics.get(dot < 0 ? attribute : attribute.substring(0, dot));
+        if (metric instanceof Metrics.Counter counter && dot < 0) {
+            return counter.get();
+        }
+        if (metric instanceof Metrics.SuppliedCounter counter && dot < 0) {
+            return counter.get();
+        }
+        if (metric instanceof Metrics.Histogram histogram && dot >= 0) {
+            final long count = histogram.getCount();
+            switch (attribute.substring(dot + 1)) {
+                case "count":
+                    return (double) count;
+                case "meanMillis":
+                    return count == 0 ? 0.0 : histogram.getSumNanos() / 1e6 / count;
+                case "p50Millis":
+                    return histogram.quantileNanos(0.5) / 1e6;
+                case "p90Millis":
+                    return histogram.quantileNanos(0.9) / 1e6;
+                case "p99Millis":
+                    return histogram.quantileNanos(0.99) / 1e6;
+                case "maxMillis":
+                    return histogram.getMaxNanos() / 1e6;
+                default:
+                    break;
+            }
+        }
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        final var list = new AttributeList();
+        for (final String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException ex) {
+                // unknown attributes are left out as the DynamicMBean contract allows
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        final List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (final Metrics.Metric metric : metrics.all()) {
+            if (metric instanceof Metrics.Histogram) {
+                for (final String stat : HISTOGRAM_STATS) {
+                    attributes.add(new MBeanAttributeInfo(metric.getName() + "." + stat, "double",
+                            metric.getHelp(), true, false, false));
+                }
+            } else {
+                attributes.add(new MBeanAttributeInfo(metric.getName(), "long", metric.getHelp(), true, false, false));
+            }
+        }
+        return new MBeanInfo(getClass().getName(), "Metrics of the measuring stations",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/*
+ * Minimal PNG encoder for ARGB pixels as read from a JavaFX image, 8 bit RGBA with the Sub filter on every row.
+ * It needs neither javafx.swing nor ImageIO, so snapshots can be encoded on plain worker threads.
+ * Not thread-safe, every worker keeps its own encoder and reuses its buffers.
+ */
+final class PngEncoder {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte FILTER_SUB = 1;
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private byte[] raw = new byte[0];
+    private byte[] compressed = new byte[0];
+
+    // level as for Deflater, BEST_SPEED is a good trade for reports that are written once and rarely read
+    PngEncoder(int level) {
+        deflater = new Deflater(level);
+    }
+
+    /*
+     * Writes the width x height pixels, row by row as in PixelReader.getPixels() with an IntArgb format.
+     */
+    void write(int[] argb, int width, int height, OutputStream out) throws IOException {
+        final int stride = 1 + width * 4;
+        final int rawLength = stride * height;
+        if (raw.length < rawLength) {
+            raw = new byte[rawLength];
+            // deflate can exceed its input by a few bytes per 16 KiB block
+            compressed = new byte[rawLength + rawLength / 1000 + 64];
+        }
+        for (int y = 0; y < height; y++) {
+            final int row = y * stride;
+            raw[row] = FILTER_SUB;
+            int previous = 0;
+            for (int x = 0; x < width; x++) {
+                final int pixel = argb[y * width + x];
+                final int at = row + 1 + x * 4;
+                // each byte minus the same byte of the pixel to the left
+                raw[at] = (byte) ((pixel >>> 16) - (previous >>> 16));
+                raw[at + 1] = (byte) ((pixel >>> 8) - (previous >>> 8));
+                raw[at + 2] = (byte) (pixel - previous);
+                raw[at + 3] = (byte) ((pixel >>> 24) - (previous >>> 24));
+                previous = pixel;
+            }
+        }
+        deflater.reset();
+        deflater.setInput(raw, 0, rawLength);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        out.write(SIGNATURE);
+        final var header = ByteBuffer.allocate(13);
+        // 8 bit depth, color type 6 (RGBA), deflate, adaptive filtering, no interlace
+        header.putInt(width).putInt(height).put((byte) 8).put((byte) 6).put((byte) 0).put((byte) 0).put((byte) 0);
+        chunk(out, "IHDR", header.array(), 13);
+        chunk(out, "IDAT", compressed, length);
+        chunk(out, "IEND", compressed, 0);
+    }
+
+    private void chunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        final var typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        crc.reset();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        final var frame = ByteBuffer.allocate(8);
+        frame.putInt(length).put(typeBytes);
+        out.write(frame.array());
+        out.write(data, 0, length);
+        out.write(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.messstation;
+
+import java.util.Arrays;
+
+/*
+ * Color bands of one sensor. The bands are described by sorted, inclusive upper bounds:
+ * a value belongs to the first band whose bound is greater or equal, values above the last bound belong to the last band.
+ * With the default five bounds there are six bands, from DARKBLUE (0) to RED (5).
+ *
+ * The classification counts the bounds below the value instead of walking an if/else ladder. For the short
+ * threshold arrays used here this is the cheapest form of an upper-bound binary search: the loop has a fixed
+ * trip count, no data dependent branches and allocates nothing, so it can run over millions of historic readings.
+ * Most sensors deliver whole numbers, so the bands of all integers up to just above the last bound are precomputed
+ * into a lookup table; the ClassificationBenchmark shows the table beating both the count and the old ladder.
+ */
+public final class PollutantDescriptor {
+    // largest lookup table, enough for every integral sensor range in use
+    private static final int MAX_TABLE = 4096;
+    private final Sensor sensor;
+    private final double[] bounds;
+    // band of every integer 0 <= i < table.length
+    private final byte[] table;
+
+    public PollutantDescriptor(Sensor sensor, double[] bounds) {
+        for (int i = 1; i < bounds.length; i++) {
+            if (!(bounds[i - 1] < bounds[i])) {
+                throw new IllegalArgumentException("Bands of " + sensor.key() + " must be strictly ascending: "
+                        + Arrays.toString(bounds));
+            }
+        }
+        this.sensor = sensor;
+        this.bounds = bounds.clone();
+        final double last = bounds.length == 0 ? 0 : bounds[bounds.length - 1];
+        table = new byte[(int) Math.max(0, Math.min(MAX_TABLE, Math.floor(last) + 2))];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (byte) countBounds(i);
+        }
+    }
+
+    public static PollutantDescriptor defaultFor(Sensor sensor) {
+        return new PollutantDescriptor(sensor, sensor.defaultBands());
+    }
+
+    public Sensor getSensor() {
+        return sensor;
+    }
+
+    public double[] getBounds() {
+        return bounds.clone();
+    }
+
+    public int getBandCount() {
+        return bounds.length + 1;
+    }
+
+    /*
+     * Returns the band index of the value. NaN is treated as the lowest band.
+     */
+    public int classify(double value) {
+        final int whole = (int) value;
+        if (whole == value && whole >= 0 && whole < table.length) {
+            return table[whole];
+        }
+        return countBounds(value);
+    }
+
+    // the classification without the lookup table, package-private so the tests can compare both
+    int countBounds(double value) {
+        final double[] b = bounds;
+        int band = 0;
+        for (int i = 0; i < b.length; i++) {
+            band += value > b[i] ? 1 : 0;
+        }
+        return band;
+    }
+
+    /*
+     * Classifies values[from, to) into bands[from, to).
+     */
+    public void classify(double[] values, int from, int to, byte[] bands) {
+        for (int i = from; i < to; i++) {
+            bands[i] = (byte) classify(values[i]);
+        }
+    }
+
+    /*
+     * Adds the band distribution of values[from, to) to counts, which needs getBandCount() slots.
+     */
+    public void countBands(double[] values, int from, int to, long[] counts) {
+        for (int i = from; i < to; i++) {
+            counts[classify(values[i])]++;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return sensor.key() + Arrays.toString(bounds);
+    }
+}
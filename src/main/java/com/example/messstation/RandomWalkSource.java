@@ -0,0 +1,82 @@
+package com.example.messstation;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/*
+ * The simulation: every poll moves each enabled sensor by a random offset of at most Sensor.maxOffset(),
+ * bounded by 0 and Sensor.walkMax(). Integral sensors are truncated to whole numbers.
+ * A source created with a seed draws from its own SplittableRandom, so the same seed gives the same trace.
+ * The draws are the same as those of SimulationEngine, a station seeded with SimulationEngine.stationSeed(seed, i)
+ * follows station i of a SimulationEngine with that seed.
+ */
+public class RandomWalkSource implements MeasurementSource {
+    // null for an unseeded source, which draws from the ThreadLocalRandom of the polling thread
+    private final RandomGenerator random;
+
+    public RandomWalkSource() {
+        this.random = null;
+    }
+
+    public RandomWalkSource(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /*
+     * Random start values for all enabled sensors.
+     */
+    @Override
+    public void attach(StationCore station) {
+        for (final Sensor sensor : station.getEnabledSensors()) {
+            enable(station, sensor);
+        }
+    }
+
+    @Override
+    public void enable(StationCore station, Sensor sensor) {
+        station.setValue(sensor, getStartValue(random(), sensor), System.currentTimeMillis());
+    }
+
+    /*
+     * Method to generate random values for all enabled sensors.
+     */
+    @Override
+    public void poll(StationCore station) {
+        final long now = System.currentTimeMillis();
+        final var generator = random();
+        for (final Sensor sensor : station.getEnabledSensors()) {
+            station.setValue(sensor, step(generator, station.getValue(sensor), sensor), now);
+        }
+    }
+
+    private RandomGenerator random() {
+        return random != null ? random : ThreadLocalRandom.current();
+    }
+
+    static double getStartValue(RandomGenerator random, Sensor sensor) {
+        return sensor.integral()
+                ? random.nextInt(0, sensor.walkMax() + 1)
+                : random.nextDouble(0, sensor.walkMax() + 0.1);
+    }
+
+    /*
+     * One step of the walk of a sensor, one draw from the generator.
+     */
+    static double step(RandomGenerator random, double value, Sensor sensor) {
+        final double next = getRandomOffsetValue(random, value, sensor.maxOffset(), sensor.walkMax());
+        // integral sensors are truncated, so the next step starts from the value that is displayed
+        return sensor.integral() ? (int) next : next;
+    }
+
+    public static double getRandomOffsetValue(double initialValue, double maxOffset, int maxValue) {
+        return getRandomOffsetValue(ThreadLocalRandom.current(), initialValue, maxOffset, maxValue);
+    }
+
+    public static double getRandomOffsetValue(RandomGenerator random, double initialValue, double maxOffset, int maxValue) {
+        return random.nextDouble(
+                Math.max(0, initialValue - maxOffset),
+                Math.min(maxValue + 0.1, initialValue + maxOffset)
+        );
+    }
+}
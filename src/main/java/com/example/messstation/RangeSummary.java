@@ -0,0 +1,47 @@
+package com.example.messstation;
+
+/*
+ * Count, min, max and mean of the readings of one sensor in a time range, see Archive.summarize().
+ */
+public final class RangeSummary {
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+
+    void add(double value) {
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+    }
+
+    void add(long otherCount, double otherMin, double otherMax, double otherSum) {
+        count += otherCount;
+        min = Math.min(min, otherMin);
+        max = Math.max(max, otherMax);
+        sum += otherSum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // NaN if the range holds no readings
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d min=%.3f max=%.3f mean=%.3f", getCount(), getMin(), getMax(), getMean());
+    }
+}
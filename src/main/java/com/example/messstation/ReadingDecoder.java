@@ -0,0 +1,82 @@
+package com.example.messstation;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Decodes the ingestion line protocol: one reading per line,
+ *     <station id>,<sensor id>,<value>[,<epoch millis>]
+ * e.g. "2,1,57.5,1700000000000". Without a timestamp the time of decoding is used.
+ * Empty lines and lines starting with '#' are skipped, malformed lines are counted and skipped.
+ * The decoder works on the bytes of a reused buffer and hands every reading to the IngestRouter without allocating.
+ */
+public final class ReadingDecoder {
+    private final IngestRouter router;
+    // counted on the ingestion thread, read by the metrics from any thread
+    private final LongAdder malformed = new LongAdder();
+
+    public ReadingDecoder(IngestRouter router) {
+        this.router = router;
+    }
+
+    public long getMalformed() {
+        return malformed.sum();
+    }
+
+    /*
+     * Decodes all complete lines between position and limit of the buffer and advances the position to the start
+     * of the first incomplete line, so the caller can compact() the buffer and read more bytes behind it.
+     * With endOfInput a last line without line break is decoded as well.
+     */
+    public void decode(ByteBuffer buffer, boolean endOfInput) {
+        final long now = System.currentTimeMillis();
+        int lineStart = buffer.position();
+        final int limit = buffer.limit();
+        for (int i = lineStart; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                decodeLine(buffer, lineStart, i, now);
+                lineStart = i + 1;
+            }
+        }
+        if (endOfInput && lineStart < limit) {
+            decodeLine(buffer, lineStart, limit, now);
+            lineStart = limit;
+        }
+        buffer.position(lineStart);
+    }
+
+    private void decodeLine(ByteBuffer buffer, int from, int to, long now) {
+        if (to > from && buffer.get(to - 1) == '\r') {
+            to--;
+        }
+        if (to == from || buffer.get(from) == '#') {
+            return;
+        }
+        final int first = indexOf(buffer, from, to);
+        final int second = first < 0 ? -1 : indexOf(buffer, first + 1, to);
+        if (second < 0) {
+            malformed.increment();
+            return;
+        }
+        final int third = indexOf(buffer, second + 1, to);
+        final long station = AsciiNumbers.parseLong(buffer, from, first);
+        final long sensor = AsciiNumbers.parseLong(buffer, first + 1, second);
+        final double value = AsciiNumbers.parseDouble(buffer, second + 1, third < 0 ? to : third);
+        final long time = third < 0 ? now : AsciiNumbers.parseLong(buffer, third + 1, to);
+        if (station < 0 || station > Integer.MAX_VALUE || sensor < 0 || sensor > Integer.MAX_VALUE
+                || Double.isNaN(value) || time == AsciiNumbers.INVALID_LONG) {
+            malformed.increment();
+            return;
+        }
+        router.accept((int) station, (int) sensor, value, time);
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == ',') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.messstation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Bounded queue of readings for one station, filled by ingestion threads and drained by the engine tick.
+ * The readings are stored in preallocated primitive arrays, so neither offering nor draining allocates.
+ * When the queue is full the BackpressurePolicy decides whether the oldest reading is dropped or the producer waits.
+ * As a MeasurementSource it writes all queued readings into the station on every poll.
+ */
+public final class ReadingQueue implements MeasurementSource {
+    private static final Metrics.Counter DROPPED_TOTAL = Metrics.shared().counter(
+            "messstation_ingest_dropped_total", "Ingested readings lost because a station queue was full or closed");
+    private final int[] sensors;
+    private final double[] values;
+    private final long[] times;
+    private final BackpressurePolicy policy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final LongAdder dropped = new LongAdder();
+    private int head;
+    private int size;
+    private volatile boolean closed;
+
+    public ReadingQueue(int capacity, BackpressurePolicy policy) {
+        sensors = new int[capacity];
+        values = new double[capacity];
+        times = new long[capacity];
+        this.policy = policy;
+    }
+
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+    // number of readings lost because the queue was full or closed
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void drop() {
+        dropped.increment();
+        DROPPED_TOTAL.increment();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Adds a reading. With BLOCK the calling thread waits while the queue is full;
+     * returns false if the reading was not queued because the thread was interrupted or the queue is closed.
+     */
+    public boolean offer(int sensor, double value, long time) {
+        lock.lock();
+        try {
+            while (size == values.length && !closed) {
+                if (policy == BackpressurePolicy.DROP_OLDEST) {
+                    head = head + 1 == values.length ? 0 : head + 1;
+                    size--;
+                    drop();
+                    break;
+                }
+                try {
+                    notFull.await(MeasurementEngine.TICK_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    drop();
+                    return false;
+                }
+            }
+            if (closed) {
+                drop();
+                return false;
+            }
+            final int tail = (head + size) % values.length;
+            sensors[tail] = sensor;
+            values[tail] = value;
+            times[tail] = time;
+            size++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Writes all queued readings, oldest first, into the station.
+     */
+    @Override
+    public void poll(StationCore station) {
+        final var all = Sensor.all();
+        lock.lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                final int index = (head + i) % values.length;
+                final int sensor = sensors[index];
+                if (sensor >= 0 && sensor < all.length) {
+                    station.setValue(all[sensor], values[index], times[index]);
+                }
+            }
+            head = 0;
+            size = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package com.example.messstation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/*
+ * Streams the live readings of all stations to TCP subscribers on the loopback address.
+ *
+ * A station tick only copies the readings into primitive snapshot arrays and marks the station changed, it never
+ * touches a socket. A single selector thread collects the changed stations every FLUSH_MILLIS, so all stations of
+ * one engine tick end up in one frame, encodes the frame once per distinct subscription filter and queues it for
+ * every subscriber with that filter. A subscriber that has more than MAX_QUEUED_BYTES waiting is disconnected,
+ * so a slow consumer costs memory only up to that limit and never delays the others.
+ *
+ * Subscriptions are text lines sent by the client, "<stations> <sensors>\n", each "*" or a comma separated list of
+ * ids, e.g. "* *" for everything or "0,1,2 1,4" for ozone and nitrogen dioxide of the first three stations
+ * with the default sensor registry.
+ * A new line replaces the filter, a malformed line or one with an unknown station or sensor id is ignored.
+ * A client that has not sent a line yet receives everything.
+ *
+ * Frames are big endian: int length of the rest of the frame, int number of records, then per station record
+ * int station id, long tick time in epoch millis, long sensor mask (bit = sensor id) and one float per set bit
+ * in sensor order. Floats are exact enough for the displayed decimals and halve the frame size.
+ */
+public final class ReadingStreamServer implements Closeable {
+    static final long FLUSH_MILLIS = 50;
+    static final int MAX_QUEUED_BYTES = 1 << 20;
+    static final int FRAME_HEADER_BYTES = 8;
+    static final int RECORD_HEADER_BYTES = 20;
+    // pending connections, large enough for a dashboard farm reconnecting at once
+    private static final int BACKLOG = 1024;
+    private static final long ALL_SENSORS = -1L >>> (Long.SIZE - Sensor.count());
+    private static final Metrics.Counter FRAMES = Metrics.shared().counter(
+            "messstation_stream_frames_total", "Frames queued for stream subscribers");
+    private static final Metrics.Counter DROPPED = Metrics.shared().counter(
+            "messstation_stream_dropped_subscribers_total", "Stream subscribers disconnected for falling behind");
+
+    private final List<StationCore> stations;
+    private final List<StationListener> listeners = new ArrayList<>();
+    // latest readings per station, written by the station ticks and read by the selector thread
+    private final long[] times;
+    private final long[] masks;
+    private final double[] values;
+    private final AtomicIntegerArray changed;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private final int[] dirty;
+    private Thread thread;
+    private volatile boolean running;
+
+    public ReadingStreamServer(int port, List<StationCore> stations) throws IOException {
+        this(new InetSocketAddress("127.0.0.1", port), stations);
+    }
+
+    public ReadingStreamServer(InetSocketAddress address, List<StationCore> stations) throws IOException {
+        this.stations = List.copyOf(stations);
+        final int count = this.stations.size();
+        times = new long[count];
+        masks = new long[count];
+        values = new double[count * Sensor.count()];
+        changed = new AtomicIntegerArray(count);
+        dirty = new int[count];
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address, BACKLOG);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    // the bound port, useful when the server was created with port 0
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /*
+     * Subscribes to the stations and starts the selector thread.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < stations.size(); i++) {
+            final int id = i;
+            final StationListener listener = station -> capture(id, station);
+            listeners.add(listener);
+            stations.get(i).addListener(listener);
+        }
+        thread = new Thread(() -> {
+            try {
+                serve();
+            } catch (IOException ex) {
+                if (running) {
+                    System.err.println("Streaming stopped: " + ex.getMessage());
+                }
+            } finally {
+                closeChannels();
+            }
+        }, "messstation-stream");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /*
+     * Called on the sampling thread of the station: copies the readings and marks the station changed.
+     */
+    private void capture(int id, StationCore station) {
+        long mask = 0;
+        for (final Sensor sensor : station.getEnabledSensors()) {
+            values[id * Sensor.count() + sensor.id()] = station.getValue(sensor);
+            mask |= 1L << sensor.id();
+        }
+        masks[id] = mask;
+        times[id] = station.getLastTickMillis();
+        // the volatile write publishes the readings to the selector thread
+        changed.set(id, 1);
+    }
+
+    private void serve() throws IOException {
+        long nextFlush = System.currentTimeMillis() + FLUSH_MILLIS;
+        while (running) {
+            selector.select(Math.max(1, nextFlush - System.currentTimeMillis()));
+            final var keys = selector.selectedKeys();
+            for (final SelectionKey key : keys) {
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+                final var subscriber = (Subscriber) key.attachment();
+                if (key.isReadable()) {
+                    subscriber.read();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    subscriber.write();
+                }
+            }
+            keys.clear();
+            if (System.currentTimeMillis() >= nextFlush) {
+                flush();
+                nextFlush = System.currentTimeMillis() + FLUSH_MILLIS;
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel client;
+        while ((client = server.accept()) != null) {
+            client.configureBlocking(false);
+            client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            final var subscriber = new Subscriber(client);
+            subscriber.key = client.register(selector, SelectionKey.OP_READ, subscriber);
+            synchronized (this) {
+                subscribers.add(subscriber);
+            }
+        }
+    }
+
+    /*
+     * Sends the stations that changed since the last flush to every subscriber, one frame per filter.
+     */
+    private void flush() {
+        int dirtyCount = 0;
+        for (int i = 0; i < dirty.length; i++) {
+            if (changed.get(i) != 0 && changed.getAndSet(i, 0) != 0) {
+                dirty[dirtyCount++] = i;
+            }
+        }
+        if (dirtyCount == 0) {
+            return;
+        }
+        final Map<Filter, ByteBuffer> frames = new HashMap<>();
+        final List<Subscriber> current;
+        synchronized (this) {
+            current = new ArrayList<>(subscribers);
+        }
+        for (final Subscriber subscriber : current) {
+            final int count = dirtyCount;
+            final var frame = frames.computeIfAbsent(subscriber.filter, filter -> encode(filter, count));
+            if (frame.limit() > FRAME_HEADER_BYTES) {
+                subscriber.enqueue(frame.duplicate());
+            }
+        }
+    }
+
+    ByteBuffer encode(Filter filter, int dirtyCount) {
+        int size = FRAME_HEADER_BYTES;
+        int records = 0;
+        for (int i = 0; i < dirtyCount; i++) {
+            final int station = dirty[i];
+            final long mask = masks[station] & filter.sensors;
+            if (mask != 0 && filter.accepts(station)) {
+                size += RECORD_HEADER_BYTES + Long.bitCount(mask) * Float.BYTES;
+                records++;
+            }
+        }
+        final var frame = ByteBuffer.allocate(size);
+        frame.putInt(size - Integer.BYTES).putInt(records);
+        for (int i = 0; i < dirtyCount; i++) {
+            final int station = dirty[i];
+            final long mask = masks[station] & filter.sensors;
+            if (mask != 0 && filter.accepts(station)) {
+                frame.putInt(station).putLong(times[station]).putLong(mask);
+                // one float per set bit, lowest sensor id first
+                for (long bits = mask; bits != 0; bits &= bits - 1) {
+                    frame.putFloat((float) values[station * Sensor.count() + Long.numberOfTrailingZeros(bits)]);
+                }
+            }
+        }
+        if (records > 0) {
+            FRAMES.increment();
+        }
+        return frame.flip();
+    }
+
+    private synchronized void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    private void closeChannels() {
+        for (final SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException ex) {
+                // closing anyway
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException ex) {
+            // closing anyway
+        }
+    }
+
+    /*
+     * Unsubscribes from the stations and stops the selector thread, which closes all connections on its way out.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        final boolean started;
+        synchronized (this) {
+            for (int i = 0; i < listeners.size(); i++) {
+                stations.get(i).removeListener(listeners.get(i));
+            }
+            listeners.clear();
+            started = thread != null;
+        }
+        selector.wakeup();
+        if (!started) {
+            closeChannels();
+        }
+    }
+
+    /*
+     * Stations and sensors a subscriber wants. A null station set means all stations.
+     */
+    record Filter(BitSet stations, long sensors) {
+        static final Filter ALL = new Filter(null, ALL_SENSORS);
+
+        boolean accepts(int station) {
+            return stations == null || stations.get(station);
+        }
+
+        /*
+         * Parses "<stations> <sensors>", returns null if the line is malformed or names a station id
+         * outside [0, stationCount), so a subscriber cannot make the set as large as it likes.
+         */
+        static Filter parse(String line, int stationCount) {
+            final var parts = line.trim().split("\\s+");
+            if (parts.length != 2) {
+                return null;
+            }
+            try {
+                BitSet stations = null;
+                if (!"*".equals(parts[0])) {
+                    stations = new BitSet(stationCount);
+                    for (final String id : parts[0].split(",")) {
+                        final int station = Integer.parseInt(id);
+                        if (station < 0 || station >= stationCount) {
+                            return null;
+                        }
+                        stations.set(station);
+                    }
+                }
+                long sensors = ALL_SENSORS;
+                if (!"*".equals(parts[1])) {
+                    sensors = 0;
+                    for (final String id : parts[1].split(",")) {
+                        final int sensor = Integer.parseInt(id);
+                        if (sensor < 0 || sensor >= Sensor.count()) {
+                            return null;
+                        }
+                        sensors |= 1L << sensor;
+                    }
+                }
+                return new Filter(stations, sensors);
+            } catch (IndexOutOfBoundsException | NumberFormatException ex) {
+                return null;
+            }
+        }
+    }
+
+    /*
+     * One connection. Only used on the selector thread.
+     */
+    private final class Subscriber {
+        private final SocketChannel channel;
+        private final ByteBuffer input = ByteBuffer.allocate(1024);
+        private final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+        private SelectionKey key;
+        private Filter filter = Filter.ALL;
+        private long queuedBytes;
+
+        private Subscriber(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void read() {
+            try {
+                if (channel.read(input) < 0) {
+                    close();
+                    return;
+                }
+            } catch (IOException ex) {
+                close();
+                return;
+            }
+            input.flip();
+            int start = input.position();
+            for (int i = input.position(); i < input.limit(); i++) {
+                if (input.get(i) == '\n') {
+                    final var line = new String(input.array(), start, i - start, StandardCharsets.US_ASCII);
+                    final var parsed = Filter.parse(line, stations.size());
+                    // a malformed line keeps the previous filter
+                    if (parsed != null) {
+                        filter = parsed;
+                    }
+                    start = i + 1;
+                }
+            }
+            input.position(start);
+            if (input.position() == 0 && input.limit() == input.capacity()) {
+                // a subscription line longer than the buffer is dropped
+                input.clear();
+            } else {
+                input.compact();
+            }
+        }
+
+        private void enqueue(ByteBuffer frame) {
+            if (queuedBytes + frame.remaining() > MAX_QUEUED_BYTES) {
+                DROPPED.increment();
+                close();
+                return;
+            }
+            queue.add(frame);
+            queuedBytes += frame.remaining();
+            write();
+        }
+
+        private void write() {
+            try {
+                while (!queue.isEmpty()) {
+                    final var frame = queue.peek();
+                    final int written = channel.write(frame);
+                    queuedBytes -= written;
+                    if (frame.hasRemaining()) {
+                        // the socket buffer is full, continue when the selector reports it writable
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    queue.poll();
+                }
+                key.interestOps(SelectionKey.OP_READ);
+            } catch (IOException ex) {
+                close();
+            }
+        }
+
+        private void close() {
+            key.cancel();
+            queue.clear();
+            remove(this);
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                // the connection is gone anyway
+            }
+        }
+    }
+}
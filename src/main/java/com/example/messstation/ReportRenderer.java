@@ -0,0 +1,353 @@
+package com.example.messstation;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+
+/*
+ * Renders the dashboard of a station at a past time into a PNG file, e.g. for daily reports, from the readings
+ * in an Archive. One offscreen scene with a SensorTile for every sensor of the registry is built once and reused
+ * for all stations and times, the gauges are not animated so a new value is drawn at once.
+ *
+ * Rendering is a pipeline of three stages that work on a small pool of frames:
+ * the calling thread reads the last 30 minutes of every enabled sensor from the archive into a frame,
+ * the FX thread shows the frame in the scene, snapshots it into the one WritableImage and copies the pixels out,
+ * and a pool of worker threads encodes the pixels with a PngEncoder and writes the file.
+ * The FX thread only ever does the work that has to happen there.
+ *
+ * Options, all given as --name=value: --archive-dir=<directory> (required), --output-dir=<directory> (required),
+ * --settings-dir=<directory> selects the stations as in StationNode, --from=<instant> and --to=<instant> in ISO-8601,
+ * e.g. 2024-05-01T00:00:00Z, (default: to is now, from is a day before), --step-minutes=<minutes> (default 60)
+ * and --threads=<n> encoder threads (default: one per core). The images are written to
+ * <output-dir>/<station>/<time>.png.
+ *
+ * Without a display, e.g. in CI, the toolkit runs on Monocle's headless platform with the software pipeline:
+ * add the openjfx-monocle artifact matching the JavaFX version to the classpath and start the JVM with
+ * -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw. The monocle profile of the build
+ * does this for the tests. Text is still laid out with the system's Pango, so its libraries must be installed.
+ */
+public final class ReportRenderer implements Closeable {
+    private static final long HISTORY_MILLIS = Duration.ofMinutes(30).toMillis();
+    private static final DateTimeFormatter TITLE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm 'UTC'").withZone(ZoneOffset.UTC);
+    // colons are not allowed in file names on every system
+    private static final DateTimeFormatter FILE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH-mm-ss'Z'").withZone(ZoneOffset.UTC);
+    // how long flush() waits for the images in the pipeline, rendering and encoding one takes milliseconds
+    private static final long FLUSH_SECONDS = 60;
+
+    private final Archive archive;
+    private final Path outputDirectory;
+    // built and used on the FX thread only
+    private SensorTile[] tiles;
+    private Label title;
+    private VBox root;
+    private WritableImage image;
+    private int width;
+    private int height;
+    private final BlockingQueue<Frame> frames;
+    private final ExecutorService encoders;
+    private final ThreadLocal<PngEncoder> pngEncoders =
+            ThreadLocal.withInitial(() -> new PngEncoder(Deflater.BEST_SPEED));
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+    /*
+     * Builds the scene on the FX thread, the toolkit must be running. Up to threads images are encoded at the
+     * same time and two more frames are loaded or rendered meanwhile.
+     */
+    public ReportRenderer(Archive archive, Path outputDirectory, int threads) throws InterruptedException {
+        this.archive = archive;
+        this.outputDirectory = outputDirectory;
+        onFxThread(() -> {
+            buildScene();
+            return null;
+        });
+        frames = new ArrayBlockingQueue<>(threads + 2);
+        for (int i = 0; i < threads + 2; i++) {
+            frames.add(new Frame(width * height));
+        }
+        final var count = new AtomicInteger();
+        encoders = Executors.newFixedThreadPool(threads, runnable -> {
+            final var thread = new Thread(runnable, "messstation-report-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void buildScene() {
+        final var pane = new FlowPane();
+        pane.setAlignment(Pos.CENTER);
+        pane.setHgap(20);
+        pane.setVgap(20);
+        pane.setPrefWrapLength(3 * 200 + 2 * 20);
+        tiles = new SensorTile[Sensor.count()];
+        for (final Sensor sensor : Sensor.all()) {
+            final var tile = new SensorTile(sensor);
+            tile.getGauge().setAnimated(false);
+            tiles[sensor.id()] = tile;
+            pane.getChildren().add(tile.getBox());
+        }
+        title = new Label();
+        title.setTextFill(Color.BLACK);
+        root = new VBox(title, pane);
+        root.setAlignment(Pos.TOP_CENTER);
+        root.setSpacing(10);
+        root.setPadding(new Insets(20));
+        root.setBackground(new Background(
+                new BackgroundFill(Color.rgb(210, 210, 210), CornerRadii.EMPTY, Insets.EMPTY)));
+        // the controls need a scene for their skins, it is never shown in a window
+        new Scene(root);
+        root.applyCss();
+        // the image has the size of all tiles, tiles of disabled sensors are hidden but keep their place
+        width = (int) Math.ceil(root.prefWidth(-1));
+        height = (int) Math.ceil(root.prefHeight(width));
+        root.setMinSize(width, height);
+        root.setMaxSize(width, height);
+        root.resize(width, height);
+        image = new WritableImage(width, height);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // images written so far
+    public int getWritten() {
+        return written.get();
+    }
+
+    /*
+     * Renders the station at the given time and queues the image for encoding. Blocks while all frames are in use,
+     * so the caller never runs ahead of the encoders. A failed write of an earlier image is thrown here.
+     */
+    public void render(StationCore station, long time) throws IOException, InterruptedException {
+        throwFailure();
+        final var frame = frames.take();
+        try {
+            frame.load(archive, station, time);
+        } catch (IOException | RuntimeException ex) {
+            frames.add(frame);
+            throw ex;
+        }
+        Platform.runLater(() -> snapshot(frame));
+    }
+
+    private void snapshot(Frame frame) {
+        try {
+            title.setText("Station " + frame.station.getName() + " - "
+                    + TITLE_FORMAT.format(Instant.ofEpochMilli(frame.time)));
+            for (final SensorTile tile : tiles) {
+                final var sensor = tile.getSensor();
+                final var history = frame.history[sensor.id()];
+                final boolean enabled = frame.station.isEnabled(sensor);
+                tile.getBox().setVisible(enabled);
+                if (enabled) {
+                    final double value = history.size() > 0 ? history.latest() : 0;
+                    final var gauge = tile.getGauge();
+                    gauge.setValue(value);
+                    final int band = frame.station.getDescriptor(sensor).classify(value);
+                    gauge.setBarColor(Messstation.BAND_COLORS[Math.min(band, Messstation.BAND_COLORS.length - 1)]);
+                    tile.getSparkline().update(history);
+                }
+            }
+            // a snapshot into an image that is large enough reuses it
+            root.snapshot(null, image);
+            image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(),
+                    frame.pixels, 0, width);
+        } catch (RuntimeException ex) {
+            failure.compareAndSet(null, new IOException("Rendering " + frame.station.getName() + " failed", ex));
+            frames.add(frame);
+            return;
+        }
+        encoders.execute(() -> write(frame));
+    }
+
+    private void write(Frame frame) {
+        try {
+            final var directory = Files.createDirectories(outputDirectory.resolve(frame.station.getName()));
+            final var file = directory.resolve(FILE_FORMAT.format(Instant.ofEpochMilli(frame.time)) + ".png");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+                pngEncoders.get().write(frame.pixels, width, height, out);
+            }
+            written.incrementAndGet();
+        } catch (IOException ex) {
+            failure.compareAndSet(null, ex);
+        } catch (RuntimeException ex) {
+            failure.compareAndSet(null, new IOException("Writing " + frame.station.getName() + " failed", ex));
+        } finally {
+            frames.add(frame);
+        }
+    }
+
+    private void throwFailure() throws IOException {
+        final var ex = failure.get();
+        if (ex != null) {
+            throw ex;
+        }
+    }
+
+    /*
+     * Waits until every queued image is written: takes every frame out of the pool, each take blocks until
+     * the frame is given back, and returns them afterwards. Throws an IOException if the pipeline does not
+     * finish within FLUSH_SECONDS, e.g. because the FX thread is stuck.
+     */
+    public void flush() throws IOException, InterruptedException {
+        final int capacity = frames.size() + frames.remainingCapacity();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(FLUSH_SECONDS);
+        final List<Frame> taken = new ArrayList<>(capacity);
+        try {
+            while (taken.size() < capacity) {
+                final var frame = frames.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (frame == null) {
+                    throwFailure();
+                    throw new IOException((capacity - taken.size()) + " images were not written within "
+                            + FLUSH_SECONDS + " seconds");
+                }
+                taken.add(frame);
+            }
+        } finally {
+            frames.addAll(taken);
+        }
+        throwFailure();
+    }
+
+    /*
+     * Stops the encoder threads, images that are not written yet are lost, see flush().
+     */
+    @Override
+    public void close() {
+        encoders.shutdownNow();
+    }
+
+    private static <T> T onFxThread(Callable<T> task) throws InterruptedException {
+        final var future = new FutureTask<>(task);
+        Platform.runLater(future);
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Building the report scene failed", ex.getCause());
+        }
+    }
+
+    /*
+     * The readings of one station at one time and, once rendered, its pixels.
+     */
+    private static final class Frame {
+        private final SampleRing[] history = new SampleRing[Sensor.count()];
+        private final int[] pixels;
+        private StationCore station;
+        private long time;
+
+        private Frame(int pixelCount) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] = new SampleRing(StationCore.DEFAULT_HISTORY_CAPACITY);
+            }
+            pixels = new int[pixelCount];
+        }
+
+        private void load(Archive archive, StationCore station, long time) throws IOException {
+            this.station = station;
+            this.time = time;
+            for (final Sensor sensor : Sensor.all()) {
+                history[sensor.id()].clear();
+            }
+            for (final Sensor sensor : station.getEnabledSensors()) {
+                archive.read(station.getName(), sensor, time - HISTORY_MILLIS, time, history[sensor.id()]::add);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final var named = StationNode.parseNamed(args);
+        final long stepMinutes = parsePositive(named.getOrDefault("step-minutes", "60"));
+        final long threads = named.containsKey("threads")
+                ? parsePositive(named.get("threads")) : Runtime.getRuntime().availableProcessors();
+        if (!named.containsKey("archive-dir") || !named.containsKey("output-dir") || stepMinutes < 1
+                || threads < 1 || threads > Integer.MAX_VALUE) {
+            System.err.println("Usage: ReportRenderer --archive-dir=<directory> --output-dir=<directory> "
+                    + "[--settings-dir=<directory>] [--from=<instant>] [--to=<instant>] [--step-minutes=<minutes>] "
+                    + "[--threads=<n>]");
+            System.exit(2);
+        }
+        final List<StationCore> stations;
+        if (named.containsKey("settings-dir")) {
+            stations = StationLoader.loadDirectory(Paths.get(named.get("settings-dir")));
+        } else {
+            stations = new ArrayList<>();
+            for (final Path setting : StationNode.DEFAULT_SETTINGS) {
+                stations.add(new StationCore(setting));
+            }
+        }
+        final var to = named.containsKey("to") ? Instant.parse(named.get("to")) : Instant.now();
+        final var from = named.containsKey("from") ? Instant.parse(named.get("from")) : to.minus(Duration.ofDays(1));
+        final long step = Duration.ofMinutes(stepMinutes).toMillis();
+
+        // the renderer needs the toolkit but never opens a window
+        Platform.setImplicitExit(false);
+        Platform.startup(() -> { });
+        final long started = System.nanoTime();
+        try (var renderer = new ReportRenderer(new Archive(Paths.get(named.get("archive-dir"))),
+                Paths.get(named.get("output-dir")), (int) threads)) {
+            for (final StationCore station : stations) {
+                for (long time = from.toEpochMilli(); time <= to.toEpochMilli(); time += step) {
+                    renderer.render(station, time);
+                }
+            }
+            renderer.flush();
+            final double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("%d images of %dx%d in %.1f s, %.0f per minute%n", renderer.getWritten(),
+                    renderer.getWidth(), renderer.getHeight(), seconds, renderer.getWritten() * 60 / seconds);
+        } finally {
+            Platform.exit();
+        }
+    }
+
+    // the number, or 0 if it is negative or no number at all, so the caller prints the usage
+    private static long parsePositive(String number) {
+        try {
+            return Math.max(0, Long.parseLong(number));
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.messstation;
+
+/*
+ * Sliding time window over the readings of one sensor with O(1) updates.
+ * The window is split into fixed buckets; each bucket keeps sum, count and max of its readings and the window keeps
+ * running totals, so the mean never rescans the history. Buckets that fall out of the window are subtracted once.
+ * The max is kept with a monotonic deque of bucket maxima, which makes it amortized O(1) as well.
+ * Readings older than the newest bucket are counted in the newest bucket. Not thread-safe, a window belongs to
+ * the thread that ticks its station.
+ */
+public final class RollingWindow {
+    private final long windowMillis;
+    private final long bucketMillis;
+    private final double[] sums;
+    private final int[] counts;
+    private final double[] maxima;
+    // bucket sequence numbers (time / bucketMillis) with decreasing maxima, used as a ring deque
+    private final long[] deque;
+    private int dequeHead;
+    private int dequeSize;
+    private long currentBucket = Long.MIN_VALUE;
+    // buckets inside the window that hold at least one reading
+    private int filledBuckets;
+    private double sum;
+    private long count;
+
+    public RollingWindow(long windowMillis, long bucketMillis) {
+        if (bucketMillis <= 0 || windowMillis % bucketMillis != 0) {
+            throw new IllegalArgumentException("Window must be a multiple of the bucket width");
+        }
+        this.windowMillis = windowMillis;
+        this.bucketMillis = bucketMillis;
+        final int buckets = (int) (windowMillis / bucketMillis);
+        sums = new double[buckets];
+        counts = new int[buckets];
+        maxima = new double[buckets];
+        deque = new long[buckets];
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public void add(long time, double value) {
+        final long bucket = Math.max(time / bucketMillis, currentBucket);
+        if (bucket != currentBucket) {
+            advance(bucket);
+        }
+        final int slot = slot(bucket);
+        sums[slot] += value;
+        if (counts[slot]++ == 0) {
+            filledBuckets++;
+        }
+        sum += value;
+        count++;
+        if (counts[slot] == 1 || value > maxima[slot]) {
+            maxima[slot] = value;
+            // buckets before this one with a smaller or equal max can never be the max again
+            while (dequeSize > 0 && maxima[slot((deque[(dequeHead + dequeSize - 1) % deque.length]))] <= value) {
+                dequeSize--;
+            }
+            deque[(dequeHead + dequeSize) % deque.length] = bucket;
+            dequeSize++;
+        }
+    }
+
+    /*
+     * Mean of all readings in the window, NaN if it is empty.
+     */
+    public double mean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /*
+     * Largest reading in the window, NaN if it is empty.
+     */
+    public double max() {
+        return dequeSize == 0 ? Double.NaN : maxima[slot(deque[dequeHead])];
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /*
+     * True while at least 75 % of the buckets in the window hold readings, the minimum data coverage the EU directive
+     * requires before an average counts. Before that, and again after an outage, averages are not used for alerting.
+     */
+    public boolean isCovered() {
+        return filledBuckets * 4L >= sums.length * 3L;
+    }
+
+    private void advance(long bucket) {
+        final long first = currentBucket == Long.MIN_VALUE ? bucket : currentBucket + 1;
+        // buckets that are reused for the new time range leave the window
+        for (long b = Math.max(first, bucket - sums.length + 1); b <= bucket; b++) {
+            final int slot = slot(b);
+            sum -= sums[slot];
+            count -= counts[slot];
+            if (counts[slot] > 0) {
+                filledBuckets--;
+            }
+            sums[slot] = 0;
+            counts[slot] = 0;
+        }
+        if (bucket - first >= sums.length) {
+            // the whole window expired
+            sum = 0;
+            count = 0;
+            filledBuckets = 0;
+        }
+        currentBucket = bucket;
+        while (dequeSize > 0 && deque[dequeHead] <= bucket - sums.length) {
+            dequeHead = (dequeHead + 1) % deque.length;
+            dequeSize--;
+        }
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) sums.length);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.messstation;
+
+/*
+ * Fixed-capacity history of one sensor. Timestamps and values are kept in primitive arrays that are allocated once,
+ * adding a sample overwrites the oldest one when the ring is full and never allocates.
+ * The memory of a ring is capacity * 16 bytes, independent of how long the station runs.
+ * Written by the sampling thread and read by the UI, so all access is synchronized on the ring.
+ */
+public final class SampleRing {
+    private final long[] times;
+    private final double[] values;
+    // index of the next write
+    private int head;
+    private int size;
+    // samples added since the ring was created, clear() does not reset it
+    private long added;
+
+    public SampleRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        times = new long[capacity];
+        values = new double[capacity];
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void add(long time, double value) {
+        times[head] = time;
+        values[head] = value;
+        head = head + 1 == values.length ? 0 : head + 1;
+        if (size < values.length) {
+            size++;
+        }
+        added++;
+    }
+
+    /*
+     * Number of samples added over the lifetime of the ring, lets a consumer find the samples it has not seen yet.
+     */
+    public synchronized long added() {
+        return added;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /*
+     * Returns the i-th oldest value, 0 <= i < size().
+     */
+    public synchronized double valueAt(int i) {
+        return values[index(i)];
+    }
+
+    public synchronized long timeAt(int i) {
+        return times[index(i)];
+    }
+
+    public synchronized double latest() {
+        return size == 0 ? Double.NaN : values[index(size - 1)];
+    }
+
+    /*
+     * Splits the history, oldest first, into at most buckets consecutive buckets and writes min, max and mean
+     * of each bucket into the given arrays. Returns the number of buckets written, which is smaller than
+     * buckets if there are fewer samples than buckets.
+     */
+    public synchronized int downsample(int buckets, double[] min, double[] max, double[] mean) {
+        final int count = Math.min(buckets, size);
+        for (int b = 0; b < count; b++) {
+            final int from = (int) ((long) b * size / count);
+            final int to = (int) ((long) (b + 1) * size / count);
+            double lo = Double.POSITIVE_INFINITY;
+            double hi = Double.NEGATIVE_INFINITY;
+            double sum = 0;
+            for (int i = from; i < to; i++) {
+                final double value = values[index(i)];
+                lo = Math.min(lo, value);
+                hi = Math.max(hi, value);
+                sum += value;
+            }
+            min[b] = lo;
+            max[b] = hi;
+            mean[b] = sum / (to - from);
+        }
+        return count;
+    }
+
+    private int index(int i) {
+        final int start = head - size;
+        final int index = start + i;
+        return index < 0 ? index + values.length : index;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashSet;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/*
+ * The sensors a station can carry, loaded once from the sensor registry: sensors.json next to this class, or the file
+ * given with -Dmessstation.sensors=<file>. Every sensor knows the key used to enable it in the settings file,
+ * how it is labelled and scaled on its gauge, how the simulated random walk behaves and where its color bands are.
+ * Every entry declares its id, stations keep their readings in arrays indexed by it and the measurement logs,
+ * archives and the stream store it, so the id of a sensor must never change. The ids are 0 to n - 1 in any order;
+ * a sensor that is no longer measured keeps its entry, otherwise recorded data would be read as another sensor.
+ *
+ * An entry looks like {"id": 1, "name": "ozon", "title": "Ozon (O³)", "unit": "µm/m³", "color": "lightblue", "max": 241,
+ * "decimals": 0, "walkStep": 6, "walkMax": 241, "integral": true, "bands": [32, 64, 119, 180, 240]}.
+ * The name gives the settings keys, "ozonEnabled" and "ozonBands". A settings file must contain the enabled flag of
+ * every sensor, unless the entry has a default with "enabled": true|false, so new sensors can be added to the
+ * registry without touching every settings file.
+ * Nothing in here depends on JavaFX, colors are kept as web color names and resolved by the UI.
+ */
+public final class Sensor {
+    // ids are bit positions in the sensor masks of ReadingStreamServer
+    public static final int MAX_SENSORS = Long.SIZE;
+    static final String REGISTRY_PROPERTY = "messstation.sensors";
+
+    private static final Sensor[] VALUES = load();
+
+    // the sensors the air quality limits refer to, null if the registry does not define them
+    public static final Sensor TEMPERATUR = find("temperatur");
+    public static final Sensor OZON = find("ozon");
+    public static final Sensor FEINSTAUB = find("feinstaub");
+    public static final Sensor KOHLENMONOXID = find("kohlenmonoxid");
+    public static final Sensor STICKSTOFFDIOXID = find("stickstoffdioxid");
+    public static final Sensor SCHWEFELDIOXID = find("schwefeldioxid");
+
+    private final int id;
+    private final String name;
+    private final String key;
+    private final String title;
+    private final String color;
+    private final int decimals;
+    private final double maxValue;
+    private final String unit;
+    private final double maxOffset;
+    private final int walkMax;
+    private final boolean integral;
+    private final double[] defaultBands;
+    private final boolean required;
+    private final boolean enabledByDefault;
+
+    private Sensor(JSONObject entry) {
+        this.id = entry.getInt("id");
+        this.name = entry.getString("name");
+        this.key = name + "Enabled";
+        this.title = entry.optString("title", name);
+        this.color = entry.optString("color", "gray");
+        this.decimals = entry.optInt("decimals", 0);
+        this.maxValue = entry.getDouble("max");
+        this.unit = entry.optString("unit", "");
+        this.maxOffset = entry.getDouble("walkStep");
+        this.walkMax = entry.optInt("walkMax", (int) maxValue);
+        this.integral = entry.optBoolean("integral", false);
+        final var bands = entry.getJSONArray("bands");
+        this.defaultBands = new double[bands.length()];
+        for (int i = 0; i < defaultBands.length; i++) {
+            defaultBands[i] = bands.getDouble(i);
+        }
+        this.required = !entry.has("enabled");
+        this.enabledByDefault = entry.optBoolean("enabled", false);
+    }
+
+    /*
+     * Returns all sensors without cloning the registry on every call.
+     */
+    public static Sensor[] all() {
+        return VALUES;
+    }
+
+    public static int count() {
+        return VALUES.length;
+    }
+
+    // the sensor with the given registry name, null if there is none
+    public static Sensor find(String name) {
+        for (final Sensor sensor : VALUES) {
+            if (sensor.name.equals(name)) {
+                return sensor;
+            }
+        }
+        return null;
+    }
+
+    private static Sensor[] load() {
+        final var file = System.getProperty(REGISTRY_PROPERTY);
+        try {
+            if (file != null) {
+                return parse(Files.readString(Paths.get(file), StandardCharsets.UTF_8));
+            }
+            try (InputStream in = Sensor.class.getResourceAsStream("sensors.json")) {
+                if (in == null) {
+                    throw new IOException("sensors.json is missing");
+                }
+                return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Sensor registry " + (file != null ? file : "sensors.json")
+                    + " is invalid: " + ex.getMessage(), ex);
+        }
+    }
+
+    /*
+     * Parses a sensor registry and returns the sensors ordered by id.
+     */
+    static Sensor[] parse(String body) throws IOException {
+        try {
+            final var entries = new JSONObject(body).getJSONArray("sensors");
+            if (entries.isEmpty() || entries.length() > MAX_SENSORS) {
+                throw new IOException("The registry must define 1 to " + MAX_SENSORS + " sensors");
+            }
+            final var sensors = new Sensor[entries.length()];
+            final var names = new HashSet<String>();
+            for (int i = 0; i < sensors.length; i++) {
+                final var sensor = new Sensor(entries.getJSONObject(i));
+                if (sensor.id < 0 || sensor.id >= sensors.length || sensors[sensor.id] != null) {
+                    throw new IOException("Sensor ids must be unique and between 0 and " + (sensors.length - 1)
+                            + ": " + sensor.id + " of " + sensor.name);
+                }
+                // the name becomes a JSON key and an XML element name in the settings files
+                if (!sensor.name.matches("[A-Za-z][A-Za-z0-9]*") || !names.add(sensor.name)) {
+                    throw new IOException("Sensor names must be unique and alphanumeric: " + sensor.name);
+                }
+                // otherwise the random walk draws from an empty range and the gauge has no scale
+                if (!(sensor.maxOffset > 0) || sensor.walkMax < 1 || !(sensor.maxValue > 0)) {
+                    throw new IOException("Sensor " + sensor.name + " needs walkStep > 0, walkMax >= 1 and max > 0");
+                }
+                for (int band = 1; band < sensor.defaultBands.length; band++) {
+                    if (sensor.defaultBands[band] <= sensor.defaultBands[band - 1]) {
+                        throw new IOException("Bands of " + sensor.name + " must be strictly ascending");
+                    }
+                }
+                sensors[sensor.id] = sensor;
+            }
+            return sensors;
+        } catch (JSONException ex) {
+            throw new IOException(ex.getMessage());
+        }
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    // settings key that overrides the color bands, e.g. "ozonBands"
+    public String bandsKey() {
+        return name + "Bands";
+    }
+
+    public String title() {
+        return title;
+    }
+
+    public String color() {
+        return color;
+    }
+
+    public int decimals() {
+        return decimals;
+    }
+
+    public double maxValue() {
+        return maxValue;
+    }
+
+    public String unit() {
+        return unit;
+    }
+
+    // largest step the random walk takes per tick
+    public double maxOffset() {
+        return maxOffset;
+    }
+
+    // upper bound of the simulated values
+    public int walkMax() {
+        return walkMax;
+    }
+
+    // integral sensors only ever show whole numbers
+    public boolean integral() {
+        return integral;
+    }
+
+    // inclusive upper bounds of the color bands used when the settings file does not define its own
+    public double[] defaultBands() {
+        return defaultBands.clone();
+    }
+
+    // whether every settings file has to contain the enabled flag of this sensor
+    public boolean required() {
+        return required;
+    }
+
+    // used for settings files without the enabled flag of an optional sensor
+    public boolean enabledByDefault() {
+        return enabledByDefault;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
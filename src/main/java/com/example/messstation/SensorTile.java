@@ -0,0 +1,75 @@
+package com.example.messstation;
+
+import eu.hansolo.medusa.Gauge;
+import eu.hansolo.medusa.GaugeBuilder;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+/*
+ * The topic box of one sensor: a bar, a label to know which gauge shows which value, the gauge
+ * and the trend of the sensor's history below the gauge.
+ * A tile only depends on its sensor, not on the station, so windows that are closed hand their tiles back to the
+ * GaugePool and the next window showing the sensor reuses them instead of building a new gauge skin.
+ * Like any JavaFX node a tile may be built on any thread as long as it is not part of a showing scene.
+ */
+public final class SensorTile {
+    private final Sensor sensor;
+    private final Gauge gauge;
+    private final Sparkline sparkline;
+    private final VBox box;
+
+    SensorTile(Sensor sensor) {
+        this.sensor = sensor;
+        gauge = buildGauge(sensor.decimals(), sensor.maxValue(), sensor.unit());
+        sparkline = new Sparkline(200, 40, 0, sensor.maxValue());
+        box = getTopicBox(sensor.title(), Color.web(sensor.color()), gauge, sparkline);
+    }
+
+    public Sensor getSensor() {
+        return sensor;
+    }
+
+    public Gauge getGauge() {
+        return gauge;
+    }
+
+    public Sparkline getSparkline() {
+        return sparkline;
+    }
+
+    public VBox getBox() {
+        return box;
+    }
+
+    private static Gauge buildGauge(int decimals, double maxValue, String unit) {
+        final var builder = GaugeBuilder.create().skinType(Gauge.SkinType.DASHBOARD);
+
+        return builder.decimals(decimals).maxValue(maxValue).unit(unit).build();
+    }
+
+    private static VBox getTopicBox(final String text, final Color color, final Gauge gauge, final Sparkline sparkline) {
+        final var bar = new Rectangle(200, 3);
+        bar.setArcWidth(6);
+        bar.setArcHeight(6);
+        bar.setFill(Color.BLACK);
+
+        final var label = new Label(text);
+        label.setTextFill(Color.BLACK);
+        label.setAlignment(Pos.CENTER);
+        label.setPadding(new Insets(0, 0, 10, 0));
+        gauge.setBarColor(color);
+        gauge.setBarBackgroundColor(Color.rgb(39, 44, 50));
+        gauge.setAnimated(true);
+
+        final var vBox = new VBox(bar, label, gauge, sparkline);
+        vBox.setSpacing(3);
+        vBox.setAlignment(Pos.CENTER);
+
+        return vBox;
+    }
+}
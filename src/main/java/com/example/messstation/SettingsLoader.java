@@ -0,0 +1,219 @@
+package com.example.messstation;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/*
+ * Loads settings files in a single pass. The format is sniffed from the first non-blank character:
+ * '{' is parsed once as JSON, '<' is streamed with one shared StAX factory, anything else is rejected.
+ * Parsed settings are cached by path, modification time and size, so a thousand stations sharing a file parse it once
+ * and an unchanged file is never parsed again. The load time and the cache hits are kept in Metrics.
+ *
+ * Both formats must contain the enabled flag of every required sensor of the Sensor registry,
+ * e.g. "ozonEnabled": "true" or <ozonEnabled>true</ozonEnabled>; optional sensors fall back to their registry default.
+ * Optionally the file can override the color bands of a sensor, e.g. "ozonBands": [32, 64, 119, 180, 240]
+ * in JSON or <ozonBands>32,64,119,180,240</ozonBands> in XML.
+ */
+public final class SettingsLoader {
+    private static final XMLInputFactory XML_FACTORY = createXmlFactory();
+    private static final Map<Path, Entry> CACHE = new ConcurrentHashMap<>();
+    private static final Metrics.Histogram LOAD_DURATION = Metrics.shared().histogram(
+            "messstation_settings_load_duration_seconds", "Time to load a settings file, cached loads included");
+    private static final Metrics.Counter CACHE_HITS = Metrics.shared().counter(
+            "messstation_settings_cache_hits_total", "Settings loads answered from the cache");
+
+    private SettingsLoader() {
+    }
+
+    public static StationSettings load(Path path) throws IOException {
+        final long start = System.nanoTime();
+        final var key = path.toAbsolutePath().normalize();
+        final var attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        final long modified = attributes.lastModifiedTime().toMillis();
+        final var cached = CACHE.get(key);
+        if (cached != null && cached.modified == modified && cached.size == attributes.size()) {
+            CACHE_HITS.increment();
+            LOAD_DURATION.recordSince(start);
+            return cached.settings;
+        }
+        final var settings = parse(Files.readAllBytes(key));
+        CACHE.put(key, new Entry(modified, attributes.size(), settings));
+        LOAD_DURATION.recordSince(start);
+        return settings;
+    }
+
+    /*
+     * Parses the content of a settings file without using the cache.
+     */
+    public static StationSettings parse(byte[] body) throws IOException {
+        int start = 0;
+        // skip a UTF-8 byte order mark and leading blanks
+        if (body.length >= 3 && (body[0] & 0xFF) == 0xEF && (body[1] & 0xFF) == 0xBB && (body[2] & 0xFF) == 0xBF) {
+            start = 3;
+        }
+        while (start < body.length && Character.isWhitespace(body[start])) {
+            start++;
+        }
+        if (start < body.length && body[start] == '{') {
+            return parseJson(new String(body, start, body.length - start, StandardCharsets.UTF_8));
+        }
+        if (start < body.length && body[start] == '<') {
+            return parseXml(body);
+        }
+        throw new IOException("File type must be JSON or XML!");
+    }
+
+    private static StationSettings parseJson(String body) throws IOException {
+        final JSONObject jsonObject;
+        try {
+            jsonObject = new JSONObject(body);
+        } catch (JSONException ex) {
+            throw new IOException("File type must be JSON or XML!");
+        }
+        final var enabled = new boolean[Sensor.count()];
+        final var descriptors = new PollutantDescriptor[Sensor.count()];
+        for (final Sensor sensor : Sensor.all()) {
+            // checking if JSONObject contain all required keys
+            if (jsonObject.has(sensor.key())) {
+                enabled[sensor.id()] = Boolean.parseBoolean(String.valueOf(jsonObject.get(sensor.key())));
+            } else if (sensor.required()) {
+                throw new IOException("Keys are missing or are invalid in the configuration file!");
+            } else {
+                enabled[sensor.id()] = sensor.enabledByDefault();
+            }
+            final var bands = jsonObject.optJSONArray(sensor.bandsKey());
+            if (bands == null) {
+                descriptors[sensor.id()] = descriptor(sensor, sensor.defaultBands());
+                continue;
+            }
+            final var bounds = new double[bands.length()];
+            try {
+                for (int i = 0; i < bounds.length; i++) {
+                    bounds[i] = bands.getDouble(i);
+                }
+            } catch (JSONException ex) {
+                throw new IOException("Bands must be a list of numbers: " + bands);
+            }
+            descriptors[sensor.id()] = descriptor(sensor, bounds);
+        }
+        return new StationSettings(enabled, descriptors);
+    }
+
+    private static StationSettings parseXml(byte[] body) throws IOException {
+        final var flags = new String[Sensor.count()];
+        final var bands = new String[Sensor.count()];
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_FACTORY.createXMLStreamReader(new ByteArrayInputStream(body));
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                final var element = reader.getLocalName();
+                // every sensor key ends with "Enabled" or "Bands", the name before it identifies the sensor
+                final var sensor = element.endsWith("Enabled")
+                        ? Sensor.find(element.substring(0, element.length() - "Enabled".length()))
+                        : element.endsWith("Bands") ? Sensor.find(element.substring(0, element.length() - "Bands".length()))
+                        : null;
+                if (sensor == null) {
+                    continue;
+                }
+                if (element.equals(sensor.key())) {
+                    flags[sensor.id()] = reader.getElementText();
+                } else {
+                    bands[sensor.id()] = reader.getElementText();
+                }
+            }
+        } catch (XMLStreamException ex) {
+            // if parsing is not successful we have neither JSON nor XML files, and we throw an exception.
+            throw new IOException("File type must be JSON or XML!");
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ex) {
+                    // nothing left to release
+                }
+            }
+        }
+        final var enabled = new boolean[Sensor.count()];
+        final var descriptors = new PollutantDescriptor[Sensor.count()];
+        for (final Sensor sensor : Sensor.all()) {
+            if (flags[sensor.id()] != null) {
+                enabled[sensor.id()] = Boolean.parseBoolean(flags[sensor.id()].trim());
+            } else if (sensor.required()) {
+                throw new IOException("Keys are missing or are invalid in the configuration file!");
+            } else {
+                enabled[sensor.id()] = sensor.enabledByDefault();
+            }
+            descriptors[sensor.id()] = descriptor(sensor,
+                    bands[sensor.id()] == null ? sensor.defaultBands() : parseBands(bands[sensor.id()]));
+        }
+        return new StationSettings(enabled, descriptors);
+    }
+
+    private static PollutantDescriptor descriptor(Sensor sensor, double[] bounds) throws IOException {
+        for (final double bound : bounds) {
+            // "NaN" parses as a number in JSON and XML, but no value would ever be above it
+            if (Double.isNaN(bound)) {
+                throw new IOException("Bands of " + sensor.key() + " must be numbers: " + Arrays.toString(bounds));
+            }
+        }
+        try {
+            return new PollutantDescriptor(sensor, bounds);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException(ex.getMessage());
+        }
+    }
+
+    /*
+     * Parses a comma separated list of band bounds as used in XML settings files.
+     */
+    private static double[] parseBands(String text) throws IOException {
+        final var parts = text.split(",");
+        final var bounds = new double[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                bounds[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException ex) {
+            throw new IOException("Bands must be a comma separated list of numbers: " + text);
+        }
+        return bounds;
+    }
+
+    private static XMLInputFactory createXmlFactory() {
+        final var factory = XMLInputFactory.newInstance();
+        // settings files never need DTDs or external entities
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    private static final class Entry {
+        private final long modified;
+        private final long size;
+        private final StationSettings settings;
+
+        private Entry(long modified, long size, StationSettings settings) {
+            this.modified = modified;
+            this.size = size;
+            this.settings = settings;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.messstation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * Hot reload of settings files. Watches the directories of the settings files of all added stations with one
+ * WatchService; when a file is created or modified every station using it reloads its settings and adds or removes
+ * gauges while it keeps running. A file that became invalid is reported and the station keeps its old settings.
+ */
+public final class SettingsWatcher implements Closeable {
+    private final WatchService service;
+    private final Map<Path, List<StationCore>> stations = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final Thread thread;
+
+    public SettingsWatcher() throws IOException {
+        service = FileSystems.getDefault().newWatchService();
+        thread = new Thread(this::watch, "messstation-settings-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void add(StationCore station) throws IOException {
+        final var file = station.getSettings().toAbsolutePath().normalize();
+        final var directory = file.getParent();
+        if (!directories.containsValue(directory)) {
+            directories.put(directory.register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY), directory);
+        }
+        stations.computeIfAbsent(file, key -> new CopyOnWriteArrayList<>()).add(station);
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                final var key = service.take();
+                final var directory = directories.get(key);
+                for (final var event : key.pollEvents()) {
+                    if (directory != null && event.context() instanceof Path) {
+                        reload(directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // closed
+        }
+    }
+
+    private void reload(Path file) {
+        final var affected = stations.get(file);
+        if (affected == null) {
+            return;
+        }
+        for (final StationCore station : affected) {
+            try {
+                station.reloadSettings();
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("Keeping old settings of " + station.getName() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        service.close();
+        thread.interrupt();
+    }
+}
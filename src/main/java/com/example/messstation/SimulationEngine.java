@@ -0,0 +1,181 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/*
+ * Bulk random walk of many simulated stations for load tests of downstream consumers, without StationCores.
+ * The values are kept per sensor in one primitive array over all stations and every step runs one tight loop
+ * per sensor, optionally split into chunks of stations on a ForkJoinPool.
+ *
+ * Every station has its own SplittableRandom seeded with stationSeed(seed, station) and draws once per enabled
+ * sensor and step in sensor order, the same draws a RandomWalkSource with that seed makes. So the trace only
+ * depends on the seed, the settings and the number of steps, not on the number of threads: identical seeds
+ * give identical traces.
+ */
+public final class SimulationEngine {
+    // number of stations stepped by one fork-join task
+    private static final int CHUNK_SIZE = 4096;
+
+    private final long seed;
+    private final int stations;
+    // the enabled sensors and their values, values[i][station] belongs to sensors[i]
+    private final Sensor[] sensors;
+    private final double[][] values;
+    private final SplittableRandom[] randoms;
+    private long steps;
+
+    /*
+     * Receives the readings of a step, e.g. IngestRouter::accept.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(int station, int sensor, double value, long time);
+    }
+
+    public SimulationEngine(int stations, StationSettings settings, long seed) {
+        this.seed = seed;
+        this.stations = stations;
+        sensors = settings.getEnabledSensors().clone();
+        values = new double[sensors.length][stations];
+        randoms = new SplittableRandom[stations];
+        for (int station = 0; station < stations; station++) {
+            randoms[station] = new SplittableRandom(stationSeed(seed, station));
+            // start values are drawn in sensor order, like RandomWalkSource.attach()
+            for (int i = 0; i < sensors.length; i++) {
+                values[i][station] = RandomWalkSource.getStartValue(randoms[station], sensors[i]);
+            }
+        }
+    }
+
+    /*
+     * Seed of a single station, spread by the golden ratio increment SplittableRandom uses itself.
+     */
+    public static long stationSeed(long seed, int station) {
+        return new SplittableRandom(seed + station * 0x9E3779B97F4A7C15L).nextLong();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getStationCount() {
+        return stations;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    // readings produced by one step
+    public long getReadingsPerStep() {
+        return (long) stations * sensors.length;
+    }
+
+    public double getValue(int station, Sensor sensor) {
+        for (int i = 0; i < sensors.length; i++) {
+            if (sensors[i] == sensor) {
+                return values[i][station];
+            }
+        }
+        return Double.NaN;
+    }
+
+    /*
+     * Moves all stations one step on the calling thread.
+     */
+    public void step() {
+        stepRange(0, stations);
+        steps++;
+    }
+
+    /*
+     * Moves all stations one step, the chunks of stations are stepped in parallel on the pool.
+     */
+    public void step(ForkJoinPool pool) {
+        final var tasks = new ArrayList<ForkJoinTask<?>>(stations / CHUNK_SIZE + 1);
+        for (int from = 0; from < stations; from += CHUNK_SIZE) {
+            final int begin = from;
+            final int end = Math.min(stations, from + CHUNK_SIZE);
+            tasks.add(pool.submit(() -> stepRange(begin, end)));
+        }
+        for (final var task : tasks) {
+            task.join();
+        }
+        steps++;
+    }
+
+    private void stepRange(int from, int to) {
+        // one loop per sensor, the sensor constants stay in registers; the draws of a station stay in sensor order
+        // because every station has its own generator
+        for (int i = 0; i < sensors.length; i++) {
+            final var sensor = sensors[i];
+            final double[] column = values[i];
+            final double maxOffset = sensor.maxOffset();
+            final int walkMax = sensor.walkMax();
+            final boolean integral = sensor.integral();
+            for (int station = from; station < to; station++) {
+                final double next = RandomWalkSource.getRandomOffsetValue(randoms[station], column[station], maxOffset, walkMax);
+                column[station] = integral ? (int) next : next;
+            }
+        }
+    }
+
+    /*
+     * Hands the current values of all stations to the sink, station by station.
+     */
+    public void emit(Sink sink, long time) {
+        for (int station = 0; station < stations; station++) {
+            for (int i = 0; i < sensors.length; i++) {
+                sink.accept(station, sensors[i].id(), values[i][station], time);
+            }
+        }
+    }
+
+    /*
+     * Hash of the current values of all stations, equal for equal traces.
+     */
+    public long checksum() {
+        long hash = steps;
+        for (final double[] column : values) {
+            for (final double value : column) {
+                hash = hash * 31 + Double.doubleToLongBits(value);
+            }
+        }
+        return hash;
+    }
+
+    /*
+     * Throughput test of the bulk simulation.
+     * Usage: SimulationEngine [stations] [steps] [seed] [settings file] [threads]
+     * Prints the readings per second and the checksum of the final values, which is the same for the same seed.
+     */
+    public static void main(String[] args) throws IOException {
+        final int stationCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        final int stepCount = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        final long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        final Path settings = args.length > 3 ? Paths.get(args[3]) : Paths.get("settings/default_settings.json");
+        final int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        final var simulation = new SimulationEngine(stationCount, SettingsLoader.load(settings), seed);
+        final var pool = new ForkJoinPool(threads);
+        final long start = System.nanoTime();
+        for (int i = 0; i < stepCount; i++) {
+            if (threads > 1) {
+                simulation.step(pool);
+            } else {
+                simulation.step();
+            }
+        }
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        System.out.printf("%d stations, %d steps, %d threads: %.1f million readings/s%n",
+                stationCount, stepCount, threads, simulation.getReadingsPerStep() * stepCount / seconds / 1e6);
+        System.out.printf("seed %d checksum %016x%n", seed, simulation.checksum());
+    }
+}
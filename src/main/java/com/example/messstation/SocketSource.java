@@ -0,0 +1,146 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/*
+ * Non-blocking listener for the ingestion line protocol on one port, over TCP and UDP at the same time.
+ * A single selector thread serves all connections. Every TCP connection gets one read buffer for its lifetime,
+ * which keeps an incomplete line until the rest arrives; every UDP datagram must contain complete lines.
+ * Bound to the loopback address unless another address is given.
+ */
+public final class SocketSource extends IngestSource {
+    private final InetSocketAddress address;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final DatagramChannel datagrams;
+
+    public SocketSource(int port, IngestRouter router) throws IOException {
+        this(new InetSocketAddress("127.0.0.1", port), router);
+    }
+
+    public SocketSource(InetSocketAddress address, IngestRouter router) throws IOException {
+        super("port-" + address.getPort(), router);
+        this.address = address;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        datagrams = DatagramChannel.open(StandardProtocolFamily.INET);
+        datagrams.bind(new InetSocketAddress(address.getAddress(), server.socket().getLocalPort()));
+        datagrams.configureBlocking(false);
+        datagrams.register(selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(BUFFER_BYTES));
+    }
+
+    // the bound port, useful when the source was created with port 0
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    @Override
+    protected void ingest() throws IOException {
+        try {
+            select();
+        } finally {
+            closeChannels();
+        }
+    }
+
+    private void select() throws IOException {
+        while (running) {
+            selector.select();
+            final var keys = selector.selectedKeys();
+            for (final SelectionKey key : keys) {
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                } else if (key.channel() == datagrams) {
+                    receive((ByteBuffer) key.attachment());
+                } else {
+                    read(key);
+                }
+            }
+            keys.clear();
+        }
+    }
+
+    private void accept() throws IOException {
+        final SocketChannel client = server.accept();
+        if (client != null) {
+            client.configureBlocking(false);
+            client.register(selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(BUFFER_BYTES));
+        }
+    }
+
+    private void receive(ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        while (datagrams.receive(buffer) != null) {
+            buffer.flip();
+            decoder.decode(buffer, true);
+            buffer.clear();
+        }
+    }
+
+    private void read(SelectionKey key) {
+        final var client = (SocketChannel) key.channel();
+        final var buffer = (ByteBuffer) key.attachment();
+        try {
+            final int read = client.read(buffer);
+            buffer.flip();
+            decoder.decode(buffer, read < 0);
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                // a single line longer than the buffer can never be decoded, skip it
+                buffer.clear();
+            } else {
+                buffer.compact();
+            }
+            if (read < 0) {
+                closeClient(key);
+            }
+        } catch (IOException ex) {
+            closeClient(key);
+        }
+    }
+
+    private static void closeClient(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ex) {
+            // the connection is gone anyway
+        }
+    }
+
+    private void closeChannels() throws IOException {
+        for (final SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    /*
+     * Stops the selector thread, which closes all channels on its way out.
+     */
+    @Override
+    public void close() throws IOException {
+        super.close();
+        selector.wakeup();
+        if (!isStarted()) {
+            closeChannels();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.messstation;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.paint.Color;
+
+/*
+ * Small trend chart of a SampleRing shown below a gauge.
+ * The history is downsampled to one bucket per two pixels, the min/max range of a bucket is drawn as a light
+ * vertical line and the means are connected by a line. All buffers are allocated once per sparkline.
+ */
+public class Sparkline extends Canvas {
+    private static final double BUCKET_WIDTH = 2;
+    private final double minValue;
+    private final double maxValue;
+    private final double[] min;
+    private final double[] max;
+    private final double[] mean;
+    private final double[] xs;
+    private final double[] ys;
+
+    public Sparkline(double width, double height, double minValue, double maxValue) {
+        super(width, height);
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        final int buckets = (int) (width / BUCKET_WIDTH);
+        min = new double[buckets];
+        max = new double[buckets];
+        mean = new double[buckets];
+        xs = new double[buckets];
+        ys = new double[buckets];
+    }
+
+    /*
+     * Redraws the chart from the ring. Must be called on the FX thread.
+     */
+    public void update(SampleRing ring) {
+        final var gc = getGraphicsContext2D();
+        final double height = getHeight();
+        gc.setFill(Color.rgb(39, 44, 50));
+        gc.fillRect(0, 0, getWidth(), height);
+
+        final int count = ring.downsample(min.length, min, max, mean);
+        if (count == 0) {
+            return;
+        }
+        gc.setStroke(Color.rgb(120, 130, 140));
+        gc.setLineWidth(1);
+        for (int i = 0; i < count; i++) {
+            final double x = i * BUCKET_WIDTH + BUCKET_WIDTH / 2;
+            xs[i] = x;
+            ys[i] = toY(mean[i], height);
+            gc.strokeLine(x, toY(min[i], height), x, toY(max[i], height));
+        }
+        gc.setStroke(Color.WHITE);
+        gc.strokePolyline(xs, ys, count);
+    }
+
+    private double toY(double value, double height) {
+        final double range = maxValue - minValue;
+        final double ratio = range <= 0 ? 0 : (value - minValue) / range;
+        return height - 1 - Math.max(0, Math.min(1, ratio)) * (height - 2);
+    }
+}
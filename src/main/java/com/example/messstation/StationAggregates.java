@@ -0,0 +1,92 @@
+package com.example.messstation;
+
+/*
+ * Incremental aggregation stage of one station. For every enabled sensor it keeps 1h, 8h and 24h RollingWindows
+ * that are updated with each new reading in O(1), and after every tick it checks the AirQualityLimits on them.
+ * The readings are taken from the history of the sensor, so a tick that ingested several readings of a sensor adds
+ * all of them, not only the latest. Readings that were overwritten in the history before a tick are lost.
+ * Crossing a limit (only once the window is sufficiently covered) publishes a BreachEvent to the AlertDispatcher.
+ * Runs as a StationListener on the sampling thread and never blocks it.
+ */
+public final class StationAggregates implements StationListener {
+    private static final AirQualityLimit.Window[] WINDOWS = AirQualityLimit.Window.values();
+    private static final AirQualityLimit[] LIMITS = AirQualityLimit.values();
+
+    private final AlertDispatcher dispatcher;
+    // windows[sensor id][window ordinal], created on the first reading of a sensor
+    private final RollingWindow[][] windows = new RollingWindow[Sensor.count()][];
+    // number of history samples of each sensor already added to its windows
+    private final long[] consumed = new long[Sensor.count()];
+    private final boolean[] breached = new boolean[LIMITS.length];
+
+    public StationAggregates(AlertDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /*
+     * Creates the aggregation stage and subscribes it to the station.
+     */
+    public static StationAggregates attach(StationCore station, AlertDispatcher dispatcher) {
+        final var aggregates = new StationAggregates(dispatcher);
+        station.addListener(aggregates);
+        return aggregates;
+    }
+
+    // null if the sensor had no reading yet
+    public RollingWindow getWindow(Sensor sensor, AirQualityLimit.Window window) {
+        final var perSensor = windows[sensor.id()];
+        return perSensor == null ? null : perSensor[window.ordinal()];
+    }
+
+    @Override
+    public void onTick(StationCore station) {
+        boolean updated = false;
+        for (final Sensor sensor : station.getEnabledSensors()) {
+            final var history = station.getHistory(sensor);
+            final long added = history.added();
+            if (added == consumed[sensor.id()]) {
+                continue;
+            }
+            var perSensor = windows[sensor.id()];
+            if (perSensor == null) {
+                // first reading, or the sensor was enabled by reloaded settings
+                perSensor = new RollingWindow[WINDOWS.length];
+                for (final AirQualityLimit.Window window : WINDOWS) {
+                    perSensor[window.ordinal()] = new RollingWindow(window.millis(), window.bucketMillis());
+                }
+                windows[sensor.id()] = perSensor;
+            }
+            final int size = history.size();
+            for (int i = size - (int) Math.min(added - consumed[sensor.id()], size); i < size; i++) {
+                final long time = history.timeAt(i);
+                final double value = history.valueAt(i);
+                for (final RollingWindow window : perSensor) {
+                    window.add(time, value);
+                }
+            }
+            consumed[sensor.id()] = added;
+            updated = true;
+        }
+        if (!updated) {
+            // no new readings since the last tick
+            return;
+        }
+        final long time = station.getLastTickMillis();
+        for (final AirQualityLimit limit : LIMITS) {
+            if (limit.sensor() == null) {
+                // the sensor registry does not define the sensor of the limit
+                continue;
+            }
+            final var window = getWindow(limit.sensor(), limit.window());
+            if (window == null || !window.isCovered()) {
+                continue;
+            }
+            final double mean = window.mean();
+            final boolean exceeded = mean > limit.limit();
+            if (exceeded != breached[limit.ordinal()]) {
+                breached[limit.ordinal()] = exceeded;
+                dispatcher.publish(new BreachEvent(station.getName(), limit, mean, time, exceeded));
+            }
+        }
+    }
+}
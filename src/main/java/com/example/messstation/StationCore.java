@@ -0,0 +1,199 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+ * Headless part of a measurement station. It owns the current reading of every sensor of the Sensor registry
+ * in a dense double array indexed by sensor id and knows which sensors are enabled. It has no reference to JavaFX at all,
+ * so any number of stations can be sampled without creating a Stage for each of them.
+ * The readings come from a MeasurementSource that is polled by the MeasurementEngine,
+ * UIs and other consumers subscribe with a StationListener.
+ */
+public class StationCore {
+    // 30 minutes of 5 second ticks, 5.6 KiB per enabled sensor
+    public static final int DEFAULT_HISTORY_CAPACITY = 360;
+    private final Path settings;
+    private final String name;
+    private final int historyCapacity;
+    // changed only under the lock of the station, see applySettings()
+    private final boolean[] enabled = new boolean[Sensor.count()];
+    // the enabled sensors in id order, replaced as a whole when the settings change
+    private volatile Sensor[] enabledSensors;
+    // written by the sampling thread only, read by listeners after the tick completed
+    private final double[] values = new double[Sensor.count()];
+    private final PollutantDescriptor[] descriptors = new PollutantDescriptor[Sensor.count()];
+    // history per sensor, null for sensors that were never enabled
+    private final SampleRing[] history = new SampleRing[Sensor.count()];
+    private final List<StationListener> listeners = new CopyOnWriteArrayList<>();
+    // time of the readings currently in the value slots
+    private volatile long lastTickMillis;
+    private volatile MeasurementSource source;
+
+    /*
+     * when creating a new StationCore the path of the settings file is
+     * needed to initialize which sensors are enabled
+     */
+    public StationCore(Path settingsPath) throws IOException {
+        this(settingsPath, DEFAULT_HISTORY_CAPACITY);
+    }
+
+    /*
+     * Same as above with the number of samples kept in the history of every enabled sensor.
+     */
+    public StationCore(Path settingsPath, int historyCapacity) throws IOException {
+        this.settings = Objects.requireNonNullElseGet(settingsPath,
+                () -> Paths.get("settings/default_settings.json"));
+        this.name = settings.getFileName().toString();
+        this.historyCapacity = historyCapacity;
+        final var loaded = SettingsLoader.load(settings);
+        for (final Sensor sensor : Sensor.all()) {
+            descriptors[sensor.id()] = loaded.getDescriptor(sensor);
+            if (loaded.isEnabled(sensor)) {
+                enabled[sensor.id()] = true;
+                history[sensor.id()] = new SampleRing(historyCapacity);
+            }
+        }
+        enabledSensors = loaded.getEnabledSensors();
+        // the simulation is the default source, it also provides the start values
+        setSource(new RandomWalkSource());
+    }
+
+    public Path getSettings() {
+        return settings;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled(Sensor sensor) {
+        return enabled[sensor.id()];
+    }
+
+    /*
+     * The enabled sensors in id order, so per-tick work loops over the enabled sensors only.
+     * The array is shared and must not be modified.
+     */
+    public Sensor[] getEnabledSensors() {
+        return enabledSensors;
+    }
+
+    public double getValue(Sensor sensor) {
+        return values[sensor.id()];
+    }
+
+    public PollutantDescriptor getDescriptor(Sensor sensor) {
+        return descriptors[sensor.id()];
+    }
+
+    // history of the sensor, null if the sensor is disabled
+    public SampleRing getHistory(Sensor sensor) {
+        return history[sensor.id()];
+    }
+
+    // epoch millis of the readings currently held by the station
+    public long getLastTickMillis() {
+        return lastTickMillis;
+    }
+
+    // color band of the current value of the sensor
+    public int getBand(Sensor sensor) {
+        return descriptors[sensor.id()].classify(values[sensor.id()]);
+    }
+
+    public void addListener(StationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(StationListener listener) {
+        listeners.remove(listener);
+    }
+
+    public MeasurementSource getSource() {
+        return source;
+    }
+
+    /*
+     * Replaces the data source of the station. The new source is attached once and polled on every tick.
+     */
+    public void setSource(MeasurementSource source) {
+        source.attach(this);
+        this.source = source;
+    }
+
+    /*
+     * Takes the newest readings from the source and notifies the listeners afterwards.
+     * Called by the MeasurementEngine on its own thread.
+     */
+    public void tick() {
+        synchronized (this) {
+            source.poll(this);
+        }
+        publish();
+    }
+
+    /*
+     * Reads the settings file again, e.g. after it was changed, and applies it.
+     */
+    public void reloadSettings() throws IOException {
+        applySettings(SettingsLoader.load(settings));
+    }
+
+    /*
+     * Applies changed settings to the running station: sensors are enabled or disabled and the color bands replaced.
+     * A newly enabled sensor gets a history ring (kept when it is disabled again) and a start value from the source.
+     * Listeners are told with StationListener.onSettingsChanged().
+     */
+    public void applySettings(StationSettings changed) {
+        boolean modified = false;
+        synchronized (this) {
+            for (final Sensor sensor : Sensor.all()) {
+                final int id = sensor.id();
+                modified |= descriptors[id] != changed.getDescriptor(sensor) || enabled[id] != changed.isEnabled(sensor);
+                descriptors[id] = changed.getDescriptor(sensor);
+                if (changed.isEnabled(sensor) && !enabled[id]) {
+                    if (history[id] == null) {
+                        history[id] = new SampleRing(historyCapacity);
+                    }
+                    enabled[id] = true;
+                    source.enable(this, sensor);
+                } else if (!changed.isEnabled(sensor)) {
+                    enabled[id] = false;
+                }
+            }
+            enabledSensors = changed.getEnabledSensors();
+        }
+        if (modified) {
+            for (final StationListener listener : listeners) {
+                listener.onSettingsChanged(this);
+            }
+        }
+    }
+
+    /*
+     * Sets a reading, e.g. from a MeasurementSource or replayed from a MeasurementLog.
+     * Readings of disabled sensors are ignored. Listeners are only notified by publish().
+     */
+    public void setValue(Sensor sensor, double value, long time) {
+        final int id = sensor.id();
+        if (enabled[id]) {
+            values[id] = value;
+            history[id].add(time, value);
+            lastTickMillis = time;
+        }
+    }
+
+    /*
+     * Notifies all listeners about the current readings.
+     */
+    public void publish() {
+        for (final StationListener listener : listeners) {
+            listener.onTick(this);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.messstation;
+
+/*
+ * Subscriber of a StationCore. It is called on the thread that produced the readings,
+ * never on the JavaFX thread, so implementations must hand UI work over themselves.
+ */
+@FunctionalInterface
+public interface StationListener {
+    void onTick(StationCore station);
+
+    /*
+     * Called after the settings of the station were reloaded and sensors or bands changed.
+     */
+    default void onSettingsChanged(StationCore station) {
+    }
+}
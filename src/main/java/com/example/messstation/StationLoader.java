@@ -0,0 +1,42 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * Creates StationCore instances for every settings file in a directory.
+ * Files that are not valid settings are reported and skipped, so one broken file does not stop all other stations.
+ */
+public final class StationLoader {
+
+    private StationLoader() {
+    }
+
+    public static List<StationCore> loadDirectory(Path directory) throws IOException {
+        final List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(StationLoader::isSettingsFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        final List<StationCore> cores = new ArrayList<>(files.size());
+        for (final Path file : files) {
+            try {
+                cores.add(new StationCore(file));
+            } catch (IOException | RuntimeException ex) {
+                System.err.println("Skipping settings file " + file + ": " + ex.getMessage());
+            }
+        }
+        return cores;
+    }
+
+    private static boolean isSettingsFile(Path path) {
+        final var fileName = path.getFileName().toString().toLowerCase();
+        return Files.isRegularFile(path) && (fileName.endsWith(".json") || fileName.endsWith(".xml"));
+    }
+}
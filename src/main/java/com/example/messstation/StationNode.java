@@ -0,0 +1,240 @@
+package com.example.messstation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Everything a station node runs besides the windows: the stations, their settings watcher, aggregates and alerts,
+ * ingestion, recording, archive, stream and metrics servers. Nothing in here touches JavaFX, so the same node runs
+ * inside the application (Main) and without any toolkit (HeadlessNode).
+ *
+ * Options, all given as --name=value:
+ * With --settings-dir=<directory> every settings file in that directory becomes a station,
+ * otherwise the three default stations are used.
+ * With --log-dir=<directory> the readings of every station are recorded into a MeasurementLog in that directory,
+ * unless --replay-dir is given.
+ * With --archive-dir=<directory> the readings are also kept in the compressed day files of an Archive in that directory,
+ * unless --replay-dir is given, replayed readings are already recorded.
+ * With --ingest-port=<port> and/or --ingest-file=<file> the stations show real readings in the ingestion line protocol
+ * instead of simulated ones, the n-th station has the station id n-1. --backpressure=block|drop-oldest selects
+ * what happens when a station's queue is full (default: drop-oldest for sockets, block for files).
+ * The metrics are always available over JMX, with --metrics-port=<port> they are also served
+ * in the Prometheus text format on http://localhost:<port>/metrics.
+ * With --stream-port=<port> the readings of all stations are streamed to subscribers on localhost:<port>,
+ * see ReadingStreamServer for the protocol.
+ */
+public final class StationNode implements Closeable {
+    static final List<Path> DEFAULT_SETTINGS = List.of(
+            Paths.get("settings/messstation.xml"),
+            Paths.get("settings/messstation2.json"),
+            Paths.get("settings/messstation3.json"));
+    // readings queued per station between two ticks when real sensors are ingested
+    private static final int INGEST_QUEUE_CAPACITY = 8192;
+    // how long close() waits for a running tick
+    private static final long SHUTDOWN_SECONDS = 10;
+
+    private final List<StationCore> cores = new ArrayList<>();
+    private final List<MeasurementLog> logs = new ArrayList<>();
+    private final List<ArchiveWriter> archives = new ArrayList<>();
+    private final IngestRouter router = new IngestRouter();
+    private final List<IngestSource> ingestSources = new ArrayList<>();
+    private final AlertDispatcher alerts = new AlertDispatcher();
+    private SettingsWatcher settingsWatcher;
+    private MetricsServer metricsServer;
+    private ReadingStreamServer streamServer;
+
+    /*
+     * Loads the stations and starts the services selected by the options. The stations are not sampled yet,
+     * except for recording into the log directory, see start().
+     */
+    public StationNode(Map<String, String> named) throws IOException {
+        try {
+            open(named);
+        } catch (IOException | RuntimeException ex) {
+            // a half started node would keep the JVM alive, e.g. with its metrics server
+            close();
+            throw ex;
+        }
+    }
+
+    private void open(Map<String, String> named) throws IOException {
+        Metrics.shared().registerMBean();
+        if (named.containsKey("metrics-port")) {
+            metricsServer = new MetricsServer(Integer.parseInt(named.get("metrics-port")), Metrics.shared());
+        }
+        final var settingsDir = named.get("settings-dir");
+        if (settingsDir != null) {
+            cores.addAll(StationLoader.loadDirectory(Paths.get(settingsDir)));
+        } else {
+            for (final Path setting : DEFAULT_SETTINGS) {
+                cores.add(new StationCore(setting));
+            }
+        }
+        // changed settings files are applied to the running stations
+        settingsWatcher = new SettingsWatcher();
+        for (final StationCore core : cores) {
+            settingsWatcher.add(core);
+        }
+        // rolling averages and limit breaches of every station are reported on the console
+        alerts.addListener(event -> System.out.println("ALERT " + event));
+        for (final StationCore core : cores) {
+            StationAggregates.attach(core, alerts);
+        }
+        if (named.containsKey("ingest-port") || named.containsKey("ingest-file")) {
+            startIngestion(named);
+        }
+        // like the log, the archive would record the replayed readings a second time, into today's day file
+        if (named.containsKey("archive-dir") && !named.containsKey("replay-dir")) {
+            final var archiveDir = Paths.get(named.get("archive-dir"));
+            for (final StationCore core : cores) {
+                final var archive = new ArchiveWriter(archiveDir, core.getName());
+                archives.add(archive);
+                core.addListener(archive);
+            }
+        }
+        if (named.containsKey("stream-port")) {
+            streamServer = new ReadingStreamServer(Integer.parseInt(named.get("stream-port")), cores);
+            streamServer.start();
+        }
+        if (named.containsKey("log-dir") && !named.containsKey("replay-dir")) {
+            final var logDir = Files.createDirectories(Paths.get(named.get("log-dir")));
+            for (final StationCore core : cores) {
+                final var log = new MeasurementLog(MeasurementLog.fileFor(logDir, core));
+                logs.add(log);
+                core.addListener(log);
+                // recording does not depend on an open window
+                MeasurementEngine.shared().start(core);
+            }
+        }
+    }
+
+    /*
+     * Parses the --name=value options of a command line like Application.Parameters.getNamed() does,
+     * other arguments are ignored.
+     */
+    public static Map<String, String> parseNamed(String[] args) {
+        final var named = new HashMap<String, String>();
+        for (final String arg : args) {
+            final int equals = arg.indexOf('=');
+            if (arg.startsWith("--") && equals > 2) {
+                named.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return named;
+    }
+
+    // the loaded stations, the n-th station has the ingestion id n-1
+    public List<StationCore> getStations() {
+        return Collections.unmodifiableList(cores);
+    }
+
+    /*
+     * Samples all stations on the shared MeasurementEngine.
+     */
+    public void start() {
+        MeasurementEngine.shared().startAll(cores);
+    }
+
+    private void startIngestion(Map<String, String> named) throws IOException {
+        final var backpressure = named.get("backpressure");
+        final var policy = backpressure != null
+                ? BackpressurePolicy.valueOf(backpressure.toUpperCase().replace('-', '_'))
+                : named.containsKey("ingest-port") ? BackpressurePolicy.DROP_OLDEST : BackpressurePolicy.BLOCK;
+        for (int i = 0; i < cores.size(); i++) {
+            router.register(i, cores.get(i), INGEST_QUEUE_CAPACITY, policy);
+        }
+        Metrics.shared().counter("messstation_ingest_accepted_total", "Ingested readings queued for a station",
+                router::getAccepted);
+        Metrics.shared().counter("messstation_ingest_unknown_total", "Ingested readings for unknown station ids",
+                router::getUnknown);
+        if (named.containsKey("ingest-port")) {
+            ingestSources.add(new SocketSource(Integer.parseInt(named.get("ingest-port")), router));
+        }
+        if (named.containsKey("ingest-file")) {
+            ingestSources.add(new FileTailSource(Paths.get(named.get("ingest-file")), true, router));
+        }
+        for (final IngestSource source : ingestSources) {
+            source.start();
+        }
+    }
+
+    /*
+     * Stops the sampling and all services, then closes the logs and archives. Sampling and ingestion stop first,
+     * so no tick reaches a closed log or archive. Failures are reported and do not stop the others.
+     */
+    @Override
+    public void close() {
+        for (final IngestSource source : ingestSources) {
+            try {
+                source.close();
+            } catch (IOException ex) {
+                System.err.println("Stopping ingestion failed: " + ex.getMessage());
+            }
+        }
+        ingestSources.clear();
+        router.close();
+        final var engine = MeasurementEngine.shared();
+        engine.shutdown();
+        try {
+            if (!engine.awaitTermination(SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("The last tick did not complete within " + SHUTDOWN_SECONDS + " seconds");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (streamServer != null) {
+            try {
+                streamServer.close();
+            } catch (IOException ex) {
+                System.err.println("Stopping the stream server failed: " + ex.getMessage());
+            }
+            streamServer = null;
+        }
+        for (final StationCore core : cores) {
+            for (final MeasurementLog log : logs) {
+                core.removeListener(log);
+            }
+            for (final ArchiveWriter archive : archives) {
+                core.removeListener(archive);
+            }
+        }
+        for (final MeasurementLog log : logs) {
+            try {
+                log.close();
+            } catch (IOException ex) {
+                System.err.println("Closing " + log.getFile() + " failed: " + ex.getMessage());
+            }
+        }
+        logs.clear();
+        for (final ArchiveWriter archive : archives) {
+            try {
+                archive.close();
+            } catch (IOException ex) {
+                System.err.println("Closing the archive " + archive.getDirectory() + " failed: " + ex.getMessage());
+            }
+        }
+        archives.clear();
+        alerts.shutdown();
+        if (metricsServer != null) {
+            metricsServer.close();
+            metricsServer = null;
+        }
+        if (settingsWatcher != null) {
+            try {
+                settingsWatcher.close();
+            } catch (IOException ex) {
+                // the watcher thread is a daemon and ends with the application anyway
+            }
+            settingsWatcher = null;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.messstation;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.paint.Color;
+
+/*
+ * Overview of all stations in one table: a row per station and a column per sensor showing the current reading
+ * on its band color. The table is virtualized, only the rows on screen have cells and the cells are reused
+ * while scrolling, so thousands of stations cost a few hundred labels instead of a gauge per sensor and station.
+ * One AnimationTimer refreshes the visible cells whose station ticked since they were drawn, nothing else is touched.
+ * Clicking a row opens the detailed window of the station.
+ */
+public class StationOverview extends TableView<StationCore> {
+    private static final double ROW_HEIGHT = 24;
+    // background and text color of every band index, created once for all cells
+    private static final Background[] BAND_BACKGROUNDS = new Background[Messstation.BAND_COLORS.length];
+    private static final Color[] BAND_TEXT = new Color[Messstation.BAND_COLORS.length];
+
+    static {
+        for (int i = 0; i < BAND_BACKGROUNDS.length; i++) {
+            final var color = Messstation.BAND_COLORS[i];
+            BAND_BACKGROUNDS[i] = new Background(new BackgroundFill(color, CornerRadii.EMPTY, new Insets(1)));
+            // white text on dark bands, judged by the relative luminance of the band color
+            final double luminance = 0.2126 * color.getRed() + 0.7152 * color.getGreen() + 0.0722 * color.getBlue();
+            BAND_TEXT[i] = luminance < 0.5 ? Color.WHITE : Color.BLACK;
+        }
+    }
+
+    // the reading cells that currently show a station, a cell leaves the set when the virtual flow empties it
+    private final Set<ReadingCell> cells = new HashSet<>();
+    private final AnimationTimer refresher = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            for (final ReadingCell cell : cells) {
+                cell.refresh();
+            }
+        }
+    };
+
+    /*
+     * Shows the stations, open is called with the index of a station whose row was clicked.
+     * Must be created on the FX thread.
+     */
+    public StationOverview(List<StationCore> stations, IntConsumer open) {
+        super(FXCollections.observableArrayList(stations));
+        setFixedCellSize(ROW_HEIGHT);
+        setColumnResizePolicy(CONSTRAINED_RESIZE_POLICY);
+
+        // stations are numbered by their position, like the buttons of the old menu
+        final var number = new TableColumn<StationCore, StationCore>("Station");
+        number.setCellValueFactory(row -> new ReadOnlyObjectWrapper<>(row.getValue()));
+        number.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(StationCore item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty ? null : "Station " + (getIndex() + 1));
+            }
+        });
+        number.setSortable(false);
+        getColumns().add(number);
+
+        final var name = new TableColumn<StationCore, String>("Settings");
+        name.setCellValueFactory(row -> new ReadOnlyObjectWrapper<>(row.getValue().getName()));
+        name.setSortable(false);
+        getColumns().add(name);
+
+        for (final Sensor sensor : Sensor.all()) {
+            final var column = new TableColumn<StationCore, StationCore>(sensor.title());
+            column.setCellValueFactory(row -> new ReadOnlyObjectWrapper<>(row.getValue()));
+            column.setCellFactory(c -> new ReadingCell(sensor));
+            // readings change every tick, the row order has to stay the station order
+            column.setSortable(false);
+            getColumns().add(column);
+        }
+
+        setRowFactory(table -> {
+            final var row = new TableRow<StationCore>();
+            row.setOnMouseClicked(event -> {
+                if (event.getButton() == MouseButton.PRIMARY && !row.isEmpty()) {
+                    open.accept(row.getIndex());
+                }
+            });
+            return row;
+        });
+        refresher.start();
+    }
+
+    /*
+     * Reading of one sensor of the station in the row, colored by its band.
+     */
+    private final class ReadingCell extends TableCell<StationCore, StationCore> {
+        private final Sensor sensor;
+        private final String format;
+        // tick of the station that is drawn, so unchanged cells are skipped
+        private long shownTick = Long.MIN_VALUE;
+
+        private ReadingCell(Sensor sensor) {
+            this.sensor = sensor;
+            this.format = "%." + sensor.decimals() + "f " + sensor.unit();
+            setAlignment(Pos.CENTER_RIGHT);
+        }
+
+        @Override
+        protected void updateItem(StationCore station, boolean empty) {
+            super.updateItem(station, empty);
+            shownTick = Long.MIN_VALUE;
+            refresh();
+            if (empty || station == null) {
+                cells.remove(this);
+            } else {
+                cells.add(this);
+            }
+        }
+
+        private void refresh() {
+            final var station = getItem();
+            if (station == null || isEmpty() || !station.isEnabled(sensor)) {
+                if (shownTick != Long.MAX_VALUE) {
+                    setText(null);
+                    setBackground(null);
+                    shownTick = Long.MAX_VALUE;
+                }
+                return;
+            }
+            final long tick = station.getLastTickMillis();
+            if (tick == shownTick) {
+                return;
+            }
+            shownTick = tick;
+            final double value = station.getValue(sensor);
+            final int band = Math.min(station.getDescriptor(sensor).classify(value), BAND_BACKGROUNDS.length - 1);
+            setText(String.format(format, value));
+            setTextFill(BAND_TEXT[band]);
+            setBackground(BAND_BACKGROUNDS[band]);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.messstation;
+
+/*
+ * Parsed content of a settings file: which sensors are enabled and their color bands.
+ * Instances are immutable, so the SettingsLoader can share them between all stations that use the same file.
+ */
+public final class StationSettings {
+    private final boolean[] enabled;
+    private final PollutantDescriptor[] descriptors;
+    private final Sensor[] enabledSensors;
+
+    StationSettings(boolean[] enabled, PollutantDescriptor[] descriptors) {
+        this.enabled = enabled.clone();
+        this.descriptors = descriptors.clone();
+        this.enabledSensors = enabledOf(this.enabled);
+    }
+
+    /*
+     * The sensors whose flag is set, in id order.
+     */
+    static Sensor[] enabledOf(boolean[] enabled) {
+        int count = 0;
+        for (final boolean flag : enabled) {
+            count += flag ? 1 : 0;
+        }
+        final var sensors = new Sensor[count];
+        int next = 0;
+        for (final Sensor sensor : Sensor.all()) {
+            if (enabled[sensor.id()]) {
+                sensors[next++] = sensor;
+            }
+        }
+        return sensors;
+    }
+
+    public boolean isEnabled(Sensor sensor) {
+        return enabled[sensor.id()];
+    }
+
+    // the enabled sensors in id order, shared, must not be modified
+    public Sensor[] getEnabledSensors() {
+        return enabledSensors;
+    }
+
+    public PollutantDescriptor getDescriptor(Sensor sensor) {
+        return descriptors[sensor.id()];
+    }
+}
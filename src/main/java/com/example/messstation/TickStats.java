@@ -0,0 +1,71 @@
+package com.example.messstation;
+
+/*
+ * Throughput and latency numbers of the MeasurementEngine.
+ * Written by the scheduler thread after every tick, read by anyone who wants to report them.
+ */
+public class TickStats {
+    private final long createdNanos = System.nanoTime();
+    private long ticks;
+    private long stationTicks;
+    private long lastLatencyNanos;
+    private long maxLatencyNanos;
+    private long totalLatencyNanos;
+    private long lastLagNanos;
+    private long maxLagNanos;
+
+    synchronized void record(int stations, long latencyNanos, long lagNanos) {
+        ticks++;
+        stationTicks += stations;
+        lastLatencyNanos = latencyNanos;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+        totalLatencyNanos += latencyNanos;
+        lastLagNanos = lagNanos;
+        maxLagNanos = Math.max(maxLagNanos, lagNanos);
+    }
+
+    public synchronized long getTicks() {
+        return ticks;
+    }
+
+    public synchronized long getStationTicks() {
+        return stationTicks;
+    }
+
+    /*
+     * Station ticks per second since the engine was created.
+     */
+    public synchronized double getStationTicksPerSecond() {
+        final double seconds = (System.nanoTime() - createdNanos) / 1e9;
+        return seconds > 0 ? stationTicks / seconds : 0;
+    }
+
+    public synchronized double getLastLatencyMillis() {
+        return lastLatencyNanos / 1e6;
+    }
+
+    public synchronized double getMaxLatencyMillis() {
+        return maxLatencyNanos / 1e6;
+    }
+
+    public synchronized double getMeanLatencyMillis() {
+        return ticks == 0 ? 0 : totalLatencyNanos / 1e6 / ticks;
+    }
+
+    // how late the last tick started compared to its schedule
+    public synchronized double getLastLagMillis() {
+        return lastLagNanos / 1e6;
+    }
+
+    public synchronized double getMaxLagMillis() {
+        return maxLagNanos / 1e6;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ticks=%d stationTicks=%d stationTicks/s=%.1f latency(last/mean/max)=%.2f/%.2f/%.2f ms lag(last/max)=%.2f/%.2f ms",
+                ticks, stationTicks, getStationTicksPerSecond(),
+                getLastLatencyMillis(), getMeanLatencyMillis(), getMaxLatencyMillis(),
+                getLastLagMillis(), getMaxLagMillis());
+    }
+}
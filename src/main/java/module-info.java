@@ -2,5 +2,7 @@ module com.example.messstation {
   requires eu.hansolo.medusa;
   requires eu.hansolo.toolboxfx;
   requires org.json;
+  requires java.management;
+  requires jdk.httpserver;
   exports com.example.messstation;
 }
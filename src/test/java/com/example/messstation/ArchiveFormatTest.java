@@ -0,0 +1,125 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ArchiveFormatTest {
+    private static final long START = 1_714_521_600_000L;
+
+    @Test
+    void deltaOfDeltaRoundTripsAtEveryBucketEdge() {
+        // first and last value of every bucket and one past it, plus deltas that only fit into 64 bits
+        final long[] deltaOfDeltas = {
+            0, -63, 64, -64, 65, -255, 256, -256, 257, -2047, 2048, -2048, 2049,
+            1L << 40, -(1L << 40), Integer.MAX_VALUE, Integer.MIN_VALUE, 0, 0
+        };
+        final long[] times = new long[deltaOfDeltas.length + 1];
+        times[0] = START;
+        long delta = 0;
+        for (int i = 0; i < deltaOfDeltas.length; i++) {
+            delta += deltaOfDeltas[i];
+            times[i + 1] = times[i] + delta;
+        }
+        final double[] values = new double[times.length];
+
+        assertRoundTrip(times, values);
+    }
+
+    @Test
+    void xorValuesRoundTripWithReusedAndNewWindows() {
+        final double[] values = {
+            20.0,
+            // unchanged: a single bit
+            20.0,
+            // a new window, then changes that fit into it
+            20.5, 20.25, 20.75,
+            // only the lowest bits change: a new window with more than 31 leading zeros, the 5 bit field is clamped
+            Double.longBitsToDouble(Double.doubleToRawLongBits(20.75) ^ 0b101L),
+            // changes outside the window of the previous value
+            1e300, 1e-300, -0.0, 0.0, Double.longBitsToDouble(1L), Double.longBitsToDouble(3L),
+            // sign and lowest bit differ: all 64 bits are meaningful
+            Double.longBitsToDouble(0x8000_0000_0000_0001L ^ Double.doubleToRawLongBits(1.5)), 1.5,
+            Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MIN_VALUE, Double.MAX_VALUE
+        };
+        final long[] times = new long[values.length];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = START + 5_000L * i;
+        }
+
+        assertRoundTrip(times, values);
+    }
+
+    @Test
+    void randomFullBlockRoundTrips() {
+        final var random = new Random(42);
+        final long[] times = new long[ArchiveFormat.BLOCK_READINGS];
+        final double[] values = new double[times.length];
+        long time = START;
+        double value = 50;
+        for (int i = 0; i < times.length; i++) {
+            // mostly regular ticks with some jitter and gaps
+            time += random.nextInt(10) == 0 ? random.nextInt(100_000) : 5_000 + random.nextInt(3) - 1;
+            value = random.nextInt(4) == 0 ? value : Math.round((value + random.nextGaussian()) * 10) / 10.0;
+            times[i] = time;
+            values[i] = value;
+        }
+
+        assertRoundTrip(times, values);
+    }
+
+    @Test
+    void regularTicksOfAnUnchangedValueCostOneBitEach() {
+        final var encoder = new ArchiveFormat.ColumnEncoder(0);
+        for (int i = 0; i < ArchiveFormat.BLOCK_READINGS; i++) {
+            encoder.add(START + 5_000L * i, 21.5);
+        }
+        final var block = encode(encoder);
+
+        // 128 bits for the first reading, 4 + 64 bits for the first delta, then one time bit and one value bit
+        final int bits = 128 + 68 + (ArchiveFormat.BLOCK_READINGS - 2) + (ArchiveFormat.BLOCK_READINGS - 1);
+        assertEquals((bits + 7) / 8, block.getInt(ArchiveFormat.LENGTH));
+        assertEquals(ArchiveFormat.BLOCK_READINGS, block.getInt(ArchiveFormat.COUNT));
+        assertEquals(START, block.getLong(ArchiveFormat.FIRST_TIME));
+        assertEquals(START + 5_000L * (ArchiveFormat.BLOCK_READINGS - 1), block.getLong(ArchiveFormat.LAST_TIME));
+        assertEquals(21.5 * ArchiveFormat.BLOCK_READINGS, block.getDouble(ArchiveFormat.SUM));
+    }
+
+    private static void assertRoundTrip(long[] times, double[] values) {
+        final var encoder = new ArchiveFormat.ColumnEncoder(3);
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < times.length; i++) {
+            encoder.add(times[i], values[i]);
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        final var block = encode(encoder);
+
+        assertEquals(ArchiveFormat.BLOCK_MARKER, block.getInt(ArchiveFormat.MARKER));
+        assertEquals(3, block.getInt(ArchiveFormat.SENSOR));
+        assertEquals(times.length, block.getInt(ArchiveFormat.COUNT));
+        assertEquals(min, block.getDouble(ArchiveFormat.MIN));
+        assertEquals(max, block.getDouble(ArchiveFormat.MAX));
+        final List<long[]> decoded = new ArrayList<>();
+        ArchiveFormat.decode(block, 0, (time, value) -> decoded.add(new long[] {time, Double.doubleToRawLongBits(value)}));
+        assertEquals(times.length, decoded.size());
+        for (int i = 0; i < times.length; i++) {
+            assertEquals(times[i], decoded.get(i)[0], "time of reading " + i);
+            assertEquals(Double.doubleToRawLongBits(values[i]), decoded.get(i)[1], "value of reading " + i);
+        }
+    }
+
+    private static ByteBuffer encode(ArchiveFormat.ColumnEncoder encoder) {
+        final var block = ByteBuffer.allocate(ArchiveFormat.BLOCK_HEADER_BYTES + ArchiveFormat.MAX_PAYLOAD_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        encoder.writeBlock(block);
+        return block.flip();
+    }
+}
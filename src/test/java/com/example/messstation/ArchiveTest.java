@@ -0,0 +1,153 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ArchiveTest {
+    private static final long DAY = 1_714_521_600_000L;
+    private static final String STATION = "station.json";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void indexSummariesMatchTheDecodedReadings() throws IOException {
+        // three full blocks and a partial one per sensor
+        final int readings = 3 * ArchiveFormat.BLOCK_READINGS + 100;
+        try (var writer = new ArchiveWriter(directory, STATION)) {
+            for (int i = 0; i < readings; i++) {
+                writer.append(Sensor.OZON, DAY + 5_000L * i, valueAt(i));
+                writer.append(Sensor.FEINSTAUB, DAY + 5_000L * i, -valueAt(i));
+            }
+        }
+        final var archive = new Archive(directory);
+        try (var reader = new ArchiveReader(archive.fileFor(STATION, DAY))) {
+            assertEquals(8, reader.getBlockCount());
+        }
+
+        // the whole day is answered from the index, the edges of the other ranges are decoded
+        final long[][] ranges = {
+            {DAY, DAY + 86_399_999L},
+            {DAY + 5_000L * 10, DAY + 5_000L * 2_000},
+            {DAY + 5_000L * 1_024, DAY + 5_000L * 2_047},
+            {DAY + 5_000L * 3_100, DAY + 5_000L * 3_100},
+            {DAY - 1_000, DAY - 1}
+        };
+        for (final long[] range : ranges) {
+            final var summary = archive.summarize(STATION, Sensor.OZON, range[0], range[1]);
+            final var expected = new RangeSummary();
+            for (int i = 0; i < readings; i++) {
+                final long time = DAY + 5_000L * i;
+                if (time >= range[0] && time <= range[1]) {
+                    expected.add(valueAt(i));
+                }
+            }
+            final var decoded = new RangeSummary();
+            archive.read(STATION, Sensor.OZON, range[0], range[1], (time, value) -> decoded.add(value));
+            assertSummary(expected, summary);
+            assertSummary(expected, decoded);
+        }
+    }
+
+    @Test
+    void readsTheRangeInTimeOrderAcrossDays() throws IOException {
+        try (var writer = new ArchiveWriter(directory, STATION)) {
+            for (int i = 0; i < 48; i++) {
+                writer.append(Sensor.OZON, DAY + 3_600_000L * i, i);
+            }
+        }
+        final var times = new ArrayList<Long>();
+        new Archive(directory).read(STATION, Sensor.OZON, DAY + 3_600_000L * 20, DAY + 3_600_000L * 30,
+                (time, value) -> {
+                    assertEquals((time - DAY) / 3_600_000L, (long) value);
+                    times.add(time);
+                });
+        assertEquals(11, times.size());
+        assertEquals(DAY + 3_600_000L * 20, times.get(0));
+        assertEquals(DAY + 3_600_000L * 30, times.get(10));
+    }
+
+    @Test
+    void aCrashedDayIsScannedAndContinued() throws IOException {
+        final var crashed = crashedDay();
+
+        // without a trailer the reader indexes the complete blocks and ignores the torn one
+        try (var reader = new ArchiveReader(crashed)) {
+            assertEquals(1, reader.getBlockCount());
+            final var readings = readAll(reader);
+            assertEquals(ArchiveFormat.BLOCK_READINGS, readings.size());
+            assertEquals(DAY + 5_000L * (ArchiveFormat.BLOCK_READINGS - 1), readings.get(readings.size() - 1)[0]);
+        }
+
+        // a new writer keeps the complete block, cuts off the torn one and writes a valid index again
+        try (var writer = new ArchiveWriter(directory, STATION)) {
+            for (int i = 0; i < 10; i++) {
+                writer.append(Sensor.OZON, DAY + 86_000_000L + i, 1000 + i);
+            }
+        }
+        final var file = ByteBuffer.wrap(Files.readAllBytes(crashed)).order(ByteOrder.LITTLE_ENDIAN);
+        assertTrue(ArchiveFormat.indexOffset(file, file.limit()) > 0);
+        try (var reader = new ArchiveReader(crashed)) {
+            assertEquals(2, reader.getBlockCount());
+            final var readings = readAll(reader);
+            assertEquals(ArchiveFormat.BLOCK_READINGS + 10, readings.size());
+            for (int i = 0; i < ArchiveFormat.BLOCK_READINGS; i++) {
+                assertEquals(valueAt(i), Double.longBitsToDouble(readings.get(i)[1]));
+            }
+            assertEquals(1009.0, Double.longBitsToDouble(readings.get(readings.size() - 1)[1]));
+            final var summary = reader.summarize(Sensor.OZON, DAY, DAY + 86_399_999L);
+            assertEquals(ArchiveFormat.BLOCK_READINGS + 10, summary.getCount());
+        }
+    }
+
+    /*
+     * A day file as left behind by a writer that was killed: one complete block, a partly written block
+     * and no index.
+     */
+    private Path crashedDay() throws IOException {
+        final var other = directory.resolve("other");
+        final var writer = new ArchiveWriter(other, STATION);
+        for (int i = 0; i < ArchiveFormat.BLOCK_READINGS + 5; i++) {
+            writer.append(Sensor.OZON, DAY + 5_000L * i, valueAt(i));
+        }
+        final var source = new Archive(other).fileFor(STATION, DAY);
+        final var crashed = new Archive(directory).fileFor(STATION, DAY);
+        Files.createDirectories(crashed.getParent());
+        Files.copy(source, crashed);
+        writer.close();
+        final var torn = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+        torn.putInt(ArchiveFormat.BLOCK_MARKER).putInt(Sensor.OZON.id()).putInt(5).putLong(DAY);
+        Files.write(crashed, torn.array(), StandardOpenOption.APPEND);
+        return crashed;
+    }
+
+    private static List<long[]> readAll(ArchiveReader reader) {
+        final var readings = new ArrayList<long[]>();
+        reader.read(Sensor.OZON, Long.MIN_VALUE, Long.MAX_VALUE,
+                (time, value) -> readings.add(new long[] {time, Double.doubleToRawLongBits(value)}));
+        return readings;
+    }
+
+    private static double valueAt(int i) {
+        return Math.round(50 + 40 * Math.sin(i / 50.0)) / 2.0;
+    }
+
+    private static void assertSummary(RangeSummary expected, RangeSummary actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getMean(), actual.getMean(), 1e-9);
+    }
+}
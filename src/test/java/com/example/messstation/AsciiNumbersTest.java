@@ -0,0 +1,101 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class AsciiNumbersTest {
+    @Test
+    void longsMatchLongParseLong() {
+        final String[] inputs = {
+            "0", "7", "-7", "+7", "-0", "0042", "1714521600000", "-1714521600000", "999999999999999999"
+        };
+        for (final String input : inputs) {
+            assertEquals(Long.parseLong(input), parseLong(input), input);
+        }
+    }
+
+    @Test
+    void malformedAndTooLongLongsAreInvalid() {
+        // more than 18 digits are rejected, even if they would fit, so the result never overflows
+        final String[] inputs = {
+            "", "-", "+", "1a", "a1", " 1", "1 ", "1.0", "--1", "1e3",
+            "1234567890123456789", "9223372036854775807", "9223372036854775808", "-9223372036854775809"
+        };
+        for (final String input : inputs) {
+            assertEquals(AsciiNumbers.INVALID_LONG, parseLong(input), input);
+        }
+    }
+
+    @Test
+    void doublesWithUpTo15DigitsMatchDoubleParseDoubleExactly() {
+        final String[] inputs = {
+            "0", "-0", "+0", "0.0", "1", "-1", "+1.5", "57.5", "0.1", "0.3", "-0.05", "123.456", ".5", "5.",
+            "000123.4500", "0.000001", "999999999999999", "12345678901234.5", "0.123456789012345",
+            "1e3", "1E3", "1e+3", "2.5e-3", "-7.25E2", "1e22", "1e-22", "123e-5", "1.5e-7", "-4e10"
+        };
+        for (final String input : inputs) {
+            assertEquals(Double.doubleToLongBits(Double.parseDouble(input)), Double.doubleToLongBits(parseDouble(input)),
+                    input + " was " + parseDouble(input));
+        }
+    }
+
+    @Test
+    void longerMantissasAreCloseToDoubleParseDouble() {
+        final String[] inputs = {
+            "1234567890123456789", "0.12345678901234567", "98765432109876543210.5", "3.14159265358979323846",
+            "123456789012345678901234567890e-10"
+        };
+        for (final String input : inputs) {
+            final double expected = Double.parseDouble(input);
+            assertEquals(expected, parseDouble(input), Math.abs(expected) * 1e-15, input);
+        }
+    }
+
+    @Test
+    void extremeExponentsOverflowAndUnderflow() {
+        assertEquals(Double.POSITIVE_INFINITY, parseDouble("1e400"));
+        assertEquals(Double.NEGATIVE_INFINITY, parseDouble("-1e400"));
+        assertEquals(Double.POSITIVE_INFINITY, parseDouble("1e99999999"));
+        assertEquals(0.0, parseDouble("1e-400"));
+        assertEquals(0.0, parseDouble("1e-99999999"));
+        assertEquals(Double.MAX_VALUE, parseDouble("1.7976931348623157e308"), Double.MAX_VALUE * 1e-15);
+        // subnormals are not supported, the scaling by 10^-325 underflows where Double.parseDouble gives MIN_VALUE
+        assertEquals(0.0, parseDouble("4.9e-324"));
+    }
+
+    @Test
+    void malformedDoublesAreNaN() {
+        // Double.parseDouble accepts some of these, the line protocol does not
+        final String[] inputs = {
+            "", "-", "+", ".", "-.", "e3", "1e", "1e+", "1ee3", "1.2.3", "1,5", " 1", "1 ", "abc",
+            "NaN", "Infinity", "0x1p3", "1d", "1f"
+        };
+        for (final String input : inputs) {
+            assertTrue(Double.isNaN(parseDouble(input)), input + " was " + parseDouble(input));
+        }
+    }
+
+    @Test
+    void onlyTheGivenRangeIsParsed() {
+        final var buffer = ByteBuffer.wrap("12,-3.5,77".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(12, AsciiNumbers.parseLong(buffer, 0, 2));
+        assertEquals(-3.5, AsciiNumbers.parseDouble(buffer, 3, 7));
+        assertEquals(7, AsciiNumbers.parseLong(buffer, 9, 10));
+        assertEquals(0, buffer.position());
+    }
+
+    private static long parseLong(String input) {
+        final var bytes = input.getBytes(StandardCharsets.US_ASCII);
+        return AsciiNumbers.parseLong(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private static double parseDouble(String input) {
+        final var bytes = input.getBytes(StandardCharsets.US_ASCII);
+        return AsciiNumbers.parseDouble(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BulkImportTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void parsesThePlainAndTheGeneralForm() throws IOException {
+        final int ozon = Sensor.OZON.id();
+        final int co = Sensor.KOHLENMONOXID.id();
+        final var summary = importText(
+                "station,sensor,value,time\n"
+                + "# exported readings\n"
+                + "3," + ozon + ",40,1714521600000\n"
+                + "3," + ozon + ",60.5,1714521605000\r\n"
+                + "3," + co + ",1.25\n"
+                + "3," + co + ",+2.5e0,1714521590000\n"
+                + "\n"
+                + "0," + ozon + ",-1\n"
+                + "1," + Sensor.count() + ",5\n"
+                + BulkImport.MAX_STATION_ID + "," + ozon + ",5\n"
+                + "3," + ozon + "\n"
+                + "3," + ozon + ",x\n"
+                + "3," + ozon + ",20");
+
+        assertEquals(6, summary.getReadings());
+        // the header, the unknown sensor and station, the missing and the broken value
+        assertEquals(5, summary.getMalformed());
+        final var stations = summary.getStations();
+        assertEquals(2, stations.size());
+        assertEquals(0, stations.get(0).getStation());
+        assertEquals(-1, stations.get(0).getMin(Sensor.OZON));
+
+        final var station = stations.get(1);
+        assertEquals(3, station.getStation());
+        assertEquals(3, station.getCount(Sensor.OZON));
+        assertEquals(20, station.getMin(Sensor.OZON));
+        assertEquals(60.5, station.getMax(Sensor.OZON));
+        assertEquals(120.5 / 3, station.getMean(Sensor.OZON), 1e-9);
+        assertEquals(2, station.getCount(Sensor.KOHLENMONOXID));
+        assertEquals(1.875, station.getMean(Sensor.KOHLENMONOXID), 1e-9);
+        assertEquals(1714521590000L, station.getFirstTime());
+        assertEquals(1714521605000L, station.getLastTime());
+    }
+
+    @Test
+    void anOverlongLineIsDroppedUpToTheNextLineBreak() throws IOException {
+        final int ozon = Sensor.OZON.id();
+        // the tail of the long line looks like a reading and must not be imported
+        final var text = new StringBuilder("1," + ozon + ",10\n")
+                .append("9".repeat(BulkImport.WINDOW_BYTES + 100))
+                .append("2," + ozon + ",50\n")
+                .append("1," + ozon + ",30\n");
+
+        final var summary = importText(text.toString());
+
+        assertEquals(2, summary.getReadings());
+        assertEquals(1, summary.getMalformed());
+        assertEquals(1, summary.getStations().size());
+        assertEquals(20, summary.getStations().get(0).getMean(Sensor.OZON), 1e-9);
+    }
+
+    @Test
+    void linesCutByTheWindowEndAreJoined() throws IOException {
+        final int ozon = Sensor.OZON.id();
+        final var text = new StringBuilder();
+        int lines = 0;
+        while (text.length() < 3 * BulkImport.WINDOW_BYTES) {
+            text.append(lines % 7).append(',').append(ozon).append(',').append(lines % 100).append('\n');
+            lines++;
+        }
+
+        final var summary = importText(text.toString());
+
+        assertEquals(lines, summary.getReadings());
+        assertEquals(0, summary.getMalformed());
+        long total = 0;
+        for (final var station : summary.getStations()) {
+            total += station.getCount(Sensor.OZON);
+        }
+        assertEquals(lines, total);
+    }
+
+    @Test
+    void valuesAreClassifiedLikeTheGaugesDo() throws IOException {
+        // ozon is integral with an upper bound of 32 for band 0, kohlenmonoxid is not and has 0.9 for band 0
+        final var summary = importText(
+                "0," + Sensor.OZON.id() + ",32\n"
+                + "0," + Sensor.OZON.id() + ",32.7\n"
+                + "0," + Sensor.KOHLENMONOXID.id() + ",0.95\n");
+
+        final var station = summary.getStations().get(0);
+        final var ozon = PollutantDescriptor.defaultFor(Sensor.OZON);
+        assertArrayEquals(new long[] {1, 1, 0, 0, 0, 0}, station.getBands(Sensor.OZON));
+        assertEquals(1, ozon.classify(32.7));
+        assertArrayEquals(new long[] {0, 1, 0, 0, 0, 0}, station.getBands(Sensor.KOHLENMONOXID));
+    }
+
+    private BulkImport.Summary importText(String text) throws IOException {
+        final var settings = new JSONObject();
+        for (final Sensor sensor : Sensor.all()) {
+            settings.put(sensor.key(), "true");
+        }
+        final var bulkImport = new BulkImport(
+                SettingsLoader.parse(settings.toString().getBytes(StandardCharsets.UTF_8)));
+        final var file = directory.resolve("export.csv");
+        Files.writeString(file, text, StandardCharsets.US_ASCII);
+        return bulkImport.importFiles(List.of(file), ForkJoinPool.commonPool());
+    }
+}
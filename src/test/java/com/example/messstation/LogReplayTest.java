@@ -0,0 +1,79 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogReplayTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEveryRecordedTickIntoTheStation() throws IOException, InterruptedException {
+        final var recorded = TestStations.create(directory, "recorded", Sensor.TEMPERATUR, Sensor.KOHLENMONOXID);
+        final var file = directory.resolve("recorded.mlog");
+        try (var log = new MeasurementLog(file)) {
+            recorded.addListener(log);
+            for (int i = 0; i < 3; i++) {
+                TestStations.tick(recorded, 5_000L * (i + 1), 0.5 * i);
+            }
+        }
+
+        final var replayed = TestStations.create(directory, "replayed", Sensor.TEMPERATUR, Sensor.KOHLENMONOXID);
+        final var ticks = new ArrayList<double[]>();
+        final var times = new ArrayList<Long>();
+        replayed.addListener(station -> {
+            times.add(station.getLastTickMillis());
+            ticks.add(new double[] {station.getValue(Sensor.TEMPERATUR), station.getValue(Sensor.KOHLENMONOXID)});
+        });
+        new LogReplay(file, replayed, 0).replay();
+
+        assertEquals(List.of(5_000L, 10_000L, 15_000L), times);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0.5 * i + Sensor.TEMPERATUR.id(), ticks.get(i)[0]);
+            assertEquals(0.5 * i + Sensor.KOHLENMONOXID.id(), ticks.get(i)[1]);
+        }
+        assertEquals(1.0 + Sensor.TEMPERATUR.id(), replayed.getHistory(Sensor.TEMPERATUR).latest());
+    }
+
+    @Test
+    void cancelStopsAReplayThatWaitsForItsNextTick() throws IOException, InterruptedException {
+        final var recorded = TestStations.create(directory, "recorded", Sensor.OZON);
+        final var file = directory.resolve("recorded.mlog");
+        try (var log = new MeasurementLog(file)) {
+            recorded.addListener(log);
+            // a minute between the ticks, replayed in real time
+            TestStations.tick(recorded, 0, 1);
+            TestStations.tick(recorded, 60_000L, 2);
+            TestStations.tick(recorded, 120_000L, 3);
+        }
+
+        final var replayed = TestStations.create(directory, "replayed", Sensor.OZON);
+        final var published = new AtomicInteger();
+        final var first = new CountDownLatch(1);
+        replayed.addListener(station -> {
+            published.incrementAndGet();
+            first.countDown();
+        });
+        final var replay = new LogReplay(file, replayed, 1);
+        final var thread = replay.start();
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+        replay.cancel();
+        thread.join(2_000);
+
+        assertFalse(thread.isAlive());
+        assertEquals(1, published.get());
+        assertEquals(1 + Sensor.OZON.id(), replayed.getValue(Sensor.OZON));
+    }
+}
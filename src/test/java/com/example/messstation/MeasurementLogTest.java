@@ -0,0 +1,79 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MeasurementLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesHeaderAndOneRecordPerEnabledSensor() throws IOException {
+        final var station = TestStations.create(directory, "station", Sensor.OZON, Sensor.SCHWEFELDIOXID);
+        final var file = directory.resolve("station.mlog");
+        try (var log = new MeasurementLog(file)) {
+            station.addListener(log);
+            TestStations.tick(station, 1_000L, 10.5);
+            TestStations.tick(station, 6_000L, 20.5);
+        }
+
+        final var bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(MeasurementLog.HEADER_BYTES + 4 * MeasurementLog.RECORD_BYTES, bytes.remaining());
+        assertEquals(MeasurementLog.MAGIC, bytes.getInt());
+        assertEquals(MeasurementLog.VERSION, bytes.getInt());
+        for (final long time : new long[] {1_000L, 6_000L}) {
+            final double base = time == 1_000L ? 10.5 : 20.5;
+            for (final Sensor sensor : new Sensor[] {Sensor.OZON, Sensor.SCHWEFELDIOXID}) {
+                assertEquals(time, bytes.getLong());
+                assertEquals(sensor.id(), bytes.getInt());
+                assertEquals(base + sensor.id(), bytes.getDouble());
+            }
+        }
+    }
+
+    @Test
+    void reopeningCutsOffATornRecordAndAppends() throws IOException {
+        final var station = TestStations.create(directory, "station", Sensor.OZON);
+        final var file = directory.resolve("station.mlog");
+        try (var log = new MeasurementLog(file)) {
+            log.onTick(stationAt(station, 1_000L, 1));
+        }
+        // a crash in the middle of the second record
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7}, StandardOpenOption.APPEND);
+
+        try (var log = new MeasurementLog(file)) {
+            log.onTick(stationAt(station, 2_000L, 2));
+        }
+
+        final var bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(MeasurementLog.HEADER_BYTES + 2 * MeasurementLog.RECORD_BYTES, bytes.remaining());
+        bytes.position(MeasurementLog.HEADER_BYTES + MeasurementLog.RECORD_BYTES);
+        assertEquals(2_000L, bytes.getLong());
+        assertEquals(Sensor.OZON.id(), bytes.getInt());
+        assertEquals(2 + Sensor.OZON.id(), bytes.getDouble());
+    }
+
+    @Test
+    void rejectsFilesThatAreNoLog() throws IOException {
+        final var file = directory.resolve("other.mlog");
+        Files.writeString(file, "not a log at all");
+        assertThrows(IOException.class, () -> new MeasurementLog(file));
+    }
+
+    private static StationCore stationAt(StationCore station, long time, double base) {
+        for (final Sensor sensor : station.getEnabledSensors()) {
+            station.setValue(sensor, base + sensor.id(), time);
+        }
+        return station;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+class PngEncoderTest {
+    @Test
+    void pixelsRoundTripThroughImageIo() throws IOException {
+        final var encoder = new PngEncoder(Deflater.BEST_SPEED);
+        final var random = new Random(7);
+        final int width = 37;
+        final int height = 11;
+        final var pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++) {
+            // every channel, including the alpha, and runs of equal pixels for the Sub filter
+            pixels[i] = i % 5 == 0 ? 0xFFD2D2D2 : random.nextInt();
+        }
+        pixels[0] = 0x00000000;
+        pixels[1] = 0xFFFFFFFF;
+        pixels[2] = 0x80FF0001;
+
+        assertDecodesTo(encoder, pixels, width, height);
+    }
+
+    @Test
+    void reusedBuffersDoNotLeakIntoASmallerImage() throws IOException {
+        final var encoder = new PngEncoder(Deflater.DEFAULT_COMPRESSION);
+        final var large = new int[64 * 64];
+        Arrays.fill(large, 0xFF123456);
+        assertDecodesTo(encoder, large, 64, 64);
+
+        final int[] small = {0xFF000000, 0xFF0000FF, 0xFF00FF00, 0xFFFF0000, 0x7F7F7F7F, 0x01020304};
+        assertDecodesTo(encoder, small, 3, 2);
+        assertDecodesTo(encoder, small, 1, 6);
+    }
+
+    private static void assertDecodesTo(PngEncoder encoder, int[] pixels, int width, int height) throws IOException {
+        final var out = new ByteArrayOutputStream();
+        encoder.write(pixels, width, height, out);
+
+        final var image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                assertEquals(pixels[y * width + x], image.getRGB(x, y), "pixel " + x + "," + y);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PollutantDescriptorTest {
+    // the thresholds of the modifyXxx if/else ladders the default bands replaced, by sensor id
+    private static final double[][] LADDERS = {
+        {10, 20, 25, 35, 40},
+        {32, 64, 119, 180, 240},
+        {9, 19, 34, 50, 99},
+        {0.9, 1.9, 3.9, 10.9, 29.9},
+        {24, 49, 99, 200, 499},
+        {0.1, 0.2, 0.5, 1.0, 1.3}
+    };
+    // PollutantDescriptor.MAX_TABLE
+    private static final int MAX_TABLE = 4096;
+
+    @Test
+    void theDefaultBandsAreTheOldLadders() {
+        for (final Sensor sensor : Sensor.all()) {
+            assertArrayEquals(LADDERS[sensor.id()], sensor.defaultBands(), sensor.key());
+        }
+    }
+
+    @Test
+    void classifyMatchesTheOldLaddersForTheDefaultBands() {
+        for (final Sensor sensor : Sensor.all()) {
+            final var descriptor = PollutantDescriptor.defaultFor(sensor);
+            for (final double value : probes(sensor.defaultBands())) {
+                assertEquals(ladder(LADDERS[sensor.id()], value), descriptor.classify(value), sensor.key() + " " + value);
+            }
+        }
+    }
+
+    @Test
+    void classifyMatchesCountBounds() {
+        final List<PollutantDescriptor> descriptors = new ArrayList<>();
+        for (final Sensor sensor : Sensor.all()) {
+            descriptors.add(PollutantDescriptor.defaultFor(sensor));
+        }
+        // a last bound beyond the largest lookup table, and no bounds at all
+        descriptors.add(new PollutantDescriptor(Sensor.OZON, new double[] {10, 2_000.5, 5_000}));
+        descriptors.add(new PollutantDescriptor(Sensor.OZON, new double[] {-5, -0.5}));
+        descriptors.add(new PollutantDescriptor(Sensor.OZON, new double[0]));
+        for (final var descriptor : descriptors) {
+            final var probes = probes(descriptor.getBounds());
+            probes.add(Double.NaN);
+            for (final double value : probes) {
+                assertEquals(descriptor.countBounds(value), descriptor.classify(value), descriptor + " " + value);
+            }
+        }
+    }
+
+    @Test
+    void nanIsTheLowestBand() {
+        // the ladders compared with <=, so NaN fell through to RED, the descriptor documents the lowest band instead
+        for (final Sensor sensor : Sensor.all()) {
+            assertEquals(0, PollutantDescriptor.defaultFor(sensor).classify(Double.NaN), sensor.key());
+        }
+    }
+
+    @Test
+    void valuesBeyondTheTableAreClassifiedByTheBounds() {
+        final var descriptor = new PollutantDescriptor(Sensor.OZON, new double[] {10, 5_000});
+        assertEquals(1, descriptor.classify(MAX_TABLE - 1));
+        assertEquals(1, descriptor.classify(MAX_TABLE));
+        assertEquals(1, descriptor.classify(5_000));
+        assertEquals(2, descriptor.classify(5_000.5));
+        assertEquals(2, descriptor.classify(5_001));
+        assertEquals(2, descriptor.classify(Double.POSITIVE_INFINITY));
+        assertEquals(0, descriptor.classify(Double.NEGATIVE_INFINITY));
+    }
+
+    /*
+     * The band the if/else ladder of the original modifyXxx methods assigned: the first threshold >= value.
+     */
+    private static int ladder(double[] thresholds, double value) {
+        for (int band = 0; band < thresholds.length; band++) {
+            if (value <= thresholds[band]) {
+                return band;
+            }
+        }
+        return thresholds.length;
+    }
+
+    /*
+     * Every bound, its neighbours, fractions, negatives and the integers around the lookup table.
+     */
+    private static List<Double> probes(double[] bounds) {
+        final List<Double> probes = new ArrayList<>();
+        for (final double bound : bounds) {
+            for (final double offset : new double[] {-1, -0.5, -0.05, 0, 0.05, 0.5, 1}) {
+                probes.add(bound + offset);
+            }
+            probes.add(Math.nextDown(bound));
+            probes.add(Math.nextUp(bound));
+        }
+        for (int i = 0; i <= MAX_TABLE + 2; i++) {
+            probes.add((double) i);
+        }
+        for (int i = 0; i <= 600; i++) {
+            probes.add(i / 10.0);
+            probes.add(i + 0.5);
+        }
+        for (final double value : new double[] {-0.0, -0.4, -1, -1.5, -1e9, 1e9, 4096.5, Double.MAX_VALUE,
+                Double.MIN_VALUE, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+            probes.add(value);
+        }
+        return probes;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReadingDecoderTest {
+    private static final int STATION = 2;
+
+    @TempDir
+    Path directory;
+
+    private StationCore station;
+    private IngestRouter router;
+    private ReadingDecoder decoder;
+
+    @BeforeEach
+    void register() throws IOException {
+        station = TestStations.create(directory, "station", Sensor.OZON, Sensor.FEINSTAUB);
+        router = new IngestRouter();
+        router.register(STATION, station, 64, BackpressurePolicy.DROP_OLDEST);
+        decoder = new ReadingDecoder(router);
+    }
+
+    @Test
+    void validLinesReachTheStation() {
+        final long start = station.getHistory(Sensor.OZON).added();
+        decode("2," + Sensor.OZON.id() + ",57.5,1700000000000\n"
+                + "\n"
+                + "# a comment, with commas\n"
+                + "2," + Sensor.FEINSTAUB.id() + ",-3e1,1700000005000\r\n"
+                + "2," + Sensor.OZON.id() + ",+12,1700000010000", true);
+        station.tick();
+
+        assertEquals(3, router.getAccepted());
+        assertEquals(0, decoder.getMalformed());
+        final var ozone = station.getHistory(Sensor.OZON);
+        assertEquals(start + 2, ozone.added());
+        assertEquals(57.5, ozone.valueAt(ozone.size() - 2));
+        assertEquals(1_700_000_000_000L, ozone.timeAt(ozone.size() - 2));
+        assertEquals(12, station.getValue(Sensor.OZON));
+        assertEquals(-30, station.getValue(Sensor.FEINSTAUB));
+        assertEquals(1_700_000_010_000L, station.getLastTickMillis());
+    }
+
+    @Test
+    void malformedLinesAreCountedAndSkipped() {
+        final String[] lines = {
+            "2",
+            "2,1",
+            "2,1,",
+            "x,1,5",
+            "2,x,5",
+            "2,1,abc",
+            "2,1,5,abc",
+            "2,1,5,",
+            "-2,1,5",
+            "2,-1,5",
+            "99999999999,1,5",
+            "2,1,NaN",
+            "2;1;5",
+        };
+        decode(String.join("\n", lines) + "\n2," + Sensor.OZON.id() + ",7\n", false);
+
+        assertEquals(lines.length, decoder.getMalformed());
+        assertEquals(1, router.getAccepted());
+    }
+
+    @Test
+    void unknownStationsAreNotMalformed() {
+        decode("3,1,5\n0,1,5\n2,1,5\n", false);
+
+        assertEquals(0, decoder.getMalformed());
+        assertEquals(2, router.getUnknown());
+        assertEquals(1, router.getAccepted());
+    }
+
+    @Test
+    void anIncompleteLineIsLeftForTheNextRead() {
+        final var buffer = ByteBuffer.allocate(64);
+        buffer.put("2,1,5\n2,1,6".getBytes(StandardCharsets.US_ASCII)).flip();
+        decoder.decode(buffer, false);
+        assertEquals(1, router.getAccepted());
+        assertEquals(6, buffer.position());
+
+        buffer.compact().put(".5\n".getBytes(StandardCharsets.US_ASCII)).flip();
+        decoder.decode(buffer, false);
+        assertEquals(2, router.getAccepted());
+        assertEquals(0, buffer.remaining());
+        assertEquals(0, decoder.getMalformed());
+    }
+
+    private void decode(String input, boolean endOfInput) {
+        decoder.decode(ByteBuffer.wrap(input.getBytes(StandardCharsets.US_ASCII)), endOfInput);
+    }
+}
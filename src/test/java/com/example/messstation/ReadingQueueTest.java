@@ -0,0 +1,94 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReadingQueueTest {
+    private static final long START = 1_714_521_600_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void dropOldestKeepsTheNewestReadingsAtCapacity() throws IOException {
+        final var station = TestStations.create(directory, "station", Sensor.OZON);
+        final var queue = new ReadingQueue(3, BackpressurePolicy.DROP_OLDEST);
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(queue.offer(Sensor.OZON.id(), i, START + i));
+        }
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.getDropped());
+
+        final var history = station.getHistory(Sensor.OZON);
+        final long before = history.added();
+        queue.poll(station);
+        assertEquals(0, queue.size());
+        assertEquals(before + 3, history.added());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(3 + i, history.valueAt(history.size() - 3 + i));
+            assertEquals(START + 3 + i, history.timeAt(history.size() - 3 + i));
+        }
+    }
+
+    @Test
+    void blockWaitsAtCapacityUntilThePollDrainsTheQueue() throws Exception {
+        final var station = TestStations.create(directory, "station", Sensor.OZON);
+        final var queue = new ReadingQueue(2, BackpressurePolicy.BLOCK);
+        assertTrue(queue.offer(Sensor.OZON.id(), 1, START));
+        assertTrue(queue.offer(Sensor.OZON.id(), 2, START + 1));
+
+        final var producer = CompletableFuture.supplyAsync(() -> queue.offer(Sensor.OZON.id(), 3, START + 2));
+        // the producer must still be blocked after a while
+        assertThrows(TimeoutException.class, () -> producer.get(500, TimeUnit.MILLISECONDS));
+        assertEquals(2, queue.size());
+
+        queue.poll(station);
+        assertTrue(producer.get(10, TimeUnit.SECONDS));
+        assertEquals(1, queue.size());
+        assertEquals(0, queue.getDropped());
+        assertEquals(2, station.getValue(Sensor.OZON));
+    }
+
+    @Test
+    void closeReleasesABlockedProducer() throws Exception {
+        final var queue = new ReadingQueue(1, BackpressurePolicy.BLOCK);
+        assertTrue(queue.offer(Sensor.OZON.id(), 1, START));
+
+        final var producer = CompletableFuture.supplyAsync(() -> queue.offer(Sensor.OZON.id(), 2, START + 1));
+        assertThrows(TimeoutException.class, () -> producer.get(500, TimeUnit.MILLISECONDS));
+
+        queue.close();
+        assertFalse(producer.get(10, TimeUnit.SECONDS));
+        assertEquals(1, queue.getDropped());
+        assertFalse(queue.offer(Sensor.OZON.id(), 3, START + 2));
+        assertEquals(2, queue.getDropped());
+    }
+
+    @Test
+    void anInterruptedProducerGivesUp() throws InterruptedException, ExecutionException {
+        final var queue = new ReadingQueue(1, BackpressurePolicy.BLOCK);
+        assertTrue(queue.offer(Sensor.OZON.id(), 1, START));
+
+        final var result = new CompletableFuture<Boolean>();
+        final var producer = new Thread(() -> result.complete(queue.offer(Sensor.OZON.id(), 2, START + 1)));
+        producer.start();
+        producer.interrupt();
+        producer.join();
+
+        assertFalse(result.get());
+        assertEquals(1, queue.getDropped());
+        assertEquals(1, queue.size());
+    }
+}
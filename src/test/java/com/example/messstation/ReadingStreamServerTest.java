@@ -0,0 +1,138 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReadingStreamServerTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void framesFollowTheDocumentedLayout() throws IOException, InterruptedException {
+        final var stations = List.of(
+                TestStations.createAll(directory, "s0"),
+                TestStations.createAll(directory, "s1"),
+                TestStations.create(directory, "s2", Sensor.OZON));
+        try (var server = new ReadingStreamServer(0, stations); var client = connect(server)) {
+            final var input = new DataInputStream(client.getInputStream());
+            client.getOutputStream().write(("0,2 " + Sensor.OZON.id() + "," + Sensor.SCHWEFELDIOXID.id() + "\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+
+            // the filter is applied by the selector thread, frames sent before carry all stations
+            ByteBuffer frame;
+            long time = 10_000L;
+            do {
+                time += 5_000L;
+                for (final StationCore station : stations) {
+                    TestStations.tick(station, time, 0.25);
+                }
+                frame = readFrame(input);
+            } while (frame.getInt(0) != 2 || frame.getInt(4) != 0 || frame.getInt(4 + 20 + 8) != 2);
+
+            final long both = 1L << Sensor.OZON.id() | 1L << Sensor.SCHWEFELDIOXID.id();
+            assertEquals(4 + 2 * ReadingStreamServer.RECORD_HEADER_BYTES + 3 * Float.BYTES, frame.remaining());
+            assertEquals(2, frame.getInt());
+            assertEquals(0, frame.getInt());
+            assertEquals(time, frame.getLong());
+            assertEquals(both, frame.getLong());
+            assertEquals(0.25f + Sensor.OZON.id(), frame.getFloat());
+            assertEquals(0.25f + Sensor.SCHWEFELDIOXID.id(), frame.getFloat());
+            assertEquals(2, frame.getInt());
+            assertEquals(time, frame.getLong());
+            assertEquals(1L << Sensor.OZON.id(), frame.getLong());
+            assertEquals(0.25f + Sensor.OZON.id(), frame.getFloat());
+            assertEquals(0, frame.remaining());
+        }
+    }
+
+    @Test
+    void aSubscriberWithoutALineReceivesAllEnabledSensors() throws IOException, InterruptedException {
+        final var stations = List.of(
+                TestStations.create(directory, "s0", Sensor.TEMPERATUR, Sensor.KOHLENMONOXID),
+                TestStations.create(directory, "s1", Sensor.FEINSTAUB));
+        try (var server = new ReadingStreamServer(0, stations); var client = connect(server)) {
+            final var input = new DataInputStream(client.getInputStream());
+            // a flush between the two ticks splits them into two frames
+            ByteBuffer frame;
+            long time = 0;
+            do {
+                time += 5_000L;
+                TestStations.tick(stations.get(0), time, 1.5);
+                TestStations.tick(stations.get(1), time, 2.5);
+                frame = readFrame(input);
+            } while (frame.getInt(0) != 2);
+
+            assertEquals(2, frame.getInt());
+            assertEquals(0, frame.getInt());
+            assertEquals(time, frame.getLong());
+            assertEquals(1L << Sensor.TEMPERATUR.id() | 1L << Sensor.KOHLENMONOXID.id(), frame.getLong());
+            assertEquals(1.5f + Sensor.TEMPERATUR.id(), frame.getFloat());
+            assertEquals(1.5f + Sensor.KOHLENMONOXID.id(), frame.getFloat());
+            assertEquals(1, frame.getInt());
+            assertEquals(time, frame.getLong());
+            assertEquals(1L << Sensor.FEINSTAUB.id(), frame.getLong());
+            assertEquals(2.5f + Sensor.FEINSTAUB.id(), frame.getFloat());
+            assertEquals(0, frame.remaining());
+        }
+    }
+
+    @Test
+    void parsesSubscriptionLines() {
+        final var all = ReadingStreamServer.Filter.parse("* *", 3);
+        assertNotNull(all);
+        assertNull(all.stations());
+        assertTrue(all.accepts(2));
+
+        final var some = ReadingStreamServer.Filter.parse(" 0,2   1,4\n", 3);
+        assertNotNull(some);
+        assertTrue(some.accepts(0) && !some.accepts(1) && some.accepts(2));
+        assertEquals(1L << 1 | 1L << 4, some.sensors());
+    }
+
+    @Test
+    void rejectsUnknownIdsAndMalformedLines() {
+        assertNull(ReadingStreamServer.Filter.parse("2147483647 *", 3));
+        assertNull(ReadingStreamServer.Filter.parse("3 *", 3));
+        assertNull(ReadingStreamServer.Filter.parse("-1 *", 3));
+        assertNull(ReadingStreamServer.Filter.parse("* " + Sensor.count(), 3));
+        assertNull(ReadingStreamServer.Filter.parse("* -1", 3));
+        assertNull(ReadingStreamServer.Filter.parse("0,x *", 3));
+        assertNull(ReadingStreamServer.Filter.parse("*", 3));
+        assertNull(ReadingStreamServer.Filter.parse("* * *", 3));
+    }
+
+    private static Socket connect(ReadingStreamServer server) throws IOException, InterruptedException {
+        server.start();
+        final var socket = new Socket("127.0.0.1", server.getPort());
+        socket.setSoTimeout(5_000);
+        // the subscriber must be registered before the first tick, or it misses that frame
+        final long deadline = System.currentTimeMillis() + 5_000;
+        while (server.getSubscriberCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        return socket;
+    }
+
+    /*
+     * Reads one frame and returns everything after its length field.
+     */
+    private static ByteBuffer readFrame(DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        final var frame = new byte[length];
+        input.readFully(frame);
+        return ByteBuffer.wrap(frame);
+    }
+}
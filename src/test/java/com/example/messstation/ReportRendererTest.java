@@ -0,0 +1,91 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import javafx.application.Platform;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/*
+ * Needs the JavaFX toolkit, run it with mvn -Pmonocle test on machines without a display.
+ */
+@Tag("ui")
+class ReportRendererTest {
+    private static final long TIME = 1_714_557_600_000L;
+    private static final int BACKGROUND = 0xFFD2D2D2;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void startToolkit() {
+        Platform.setImplicitExit(false);
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException ex) {
+            // already running
+        }
+    }
+
+    @Test
+    void rendersOneStationFromTheArchive() throws IOException, InterruptedException {
+        final var station = TestStations.create(directory, "station", Sensor.OZON, Sensor.FEINSTAUB);
+        final var archiveDirectory = directory.resolve("archive");
+        try (var writer = new ArchiveWriter(archiveDirectory, station.getName())) {
+            // half an hour of readings before each of the two rendered times
+            for (long time = TIME - 1_800_000L; time <= TIME + 3_600_000L; time += 5_000L) {
+                final boolean later = time > TIME;
+                writer.append(Sensor.OZON, time, later ? 230 : 20);
+                writer.append(Sensor.FEINSTAUB, time, later ? 150 : 5);
+            }
+        }
+        final var output = directory.resolve("reports");
+
+        final int width;
+        final int height;
+        try (var renderer = new ReportRenderer(new Archive(archiveDirectory), output, 2)) {
+            renderer.render(station, TIME);
+            renderer.render(station, TIME + 3_600_000L);
+            renderer.flush();
+            assertEquals(2, renderer.getWritten());
+            width = renderer.getWidth();
+            height = renderer.getHeight();
+        }
+
+        final var images = Files.list(output.resolve(station.getName())).sorted().toList();
+        assertEquals(2, images.size());
+        assertEquals("2024-05-01T10-00-00Z.png", images.get(0).getFileName().toString());
+        final var first = ImageIO.read(images.get(0).toFile());
+        final var second = ImageIO.read(images.get(1).toFile());
+        assertEquals(width, first.getWidth());
+        assertEquals(height, first.getHeight());
+        assertTrue(width > 200 && height > 200, width + "x" + height);
+
+        final int[] firstPixels = pixels(first);
+        final int[] secondPixels = pixels(second);
+        // the padding shows the background, the tiles are drawn on it and the image is opaque
+        assertEquals(BACKGROUND, first.getRGB(0, 0));
+        assertEquals(BACKGROUND, first.getRGB(width - 1, height - 1));
+        assertTrue(Arrays.stream(firstPixels).anyMatch(pixel -> pixel != BACKGROUND));
+        assertTrue(Arrays.stream(firstPixels).allMatch(pixel -> pixel >>> 24 == 0xFF));
+        // other readings and bands give another image
+        assertNotEquals(Arrays.hashCode(firstPixels), Arrays.hashCode(secondPixels));
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+}
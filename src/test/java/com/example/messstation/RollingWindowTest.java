@@ -0,0 +1,63 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RollingWindowTest {
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    void meanAndMaxOnlyCoverTheWindow() {
+        final var window = new RollingWindow(10 * MINUTE, MINUTE);
+        for (int i = 0; i < 10; i++) {
+            window.add(i * MINUTE, i == 2 ? 100 : i);
+        }
+        assertEquals(10, window.count());
+        assertEquals(100, window.max());
+
+        // the minutes 0 to 2 leave the window
+        window.add(12 * MINUTE, 1);
+        assertEquals(8, window.count());
+        assertEquals(9, window.max());
+        assertEquals((3 + 4 + 5 + 6 + 7 + 8 + 9 + 1) / 8.0, window.mean(), 1e-9);
+    }
+
+    @Test
+    void coverageNeedsThreeQuartersOfTheBuckets() {
+        final var window = new RollingWindow(8 * MINUTE, MINUTE);
+        for (int i = 0; i < 5; i++) {
+            window.add(i * MINUTE, 1);
+            // many readings in one bucket do not fill the window
+            window.add(i * MINUTE + 1, 1);
+        }
+        assertFalse(window.isCovered());
+        window.add(5 * MINUTE, 1);
+        assertTrue(window.isCovered());
+    }
+
+    @Test
+    void coverageIsLostAfterAnOutage() {
+        final var window = new RollingWindow(8 * MINUTE, MINUTE);
+        for (int i = 0; i < 8; i++) {
+            window.add(i * MINUTE, 1);
+        }
+        assertTrue(window.isCovered());
+
+        // a gap longer than the window, then a single fresh reading
+        window.add(30 * MINUTE, 5);
+        assertFalse(window.isCovered());
+        assertEquals(1, window.count());
+        assertEquals(5, window.mean());
+
+        // a gap of half the window leaves only the newer buckets
+        for (int i = 31; i < 38; i++) {
+            window.add(i * MINUTE, 1);
+        }
+        assertTrue(window.isCovered());
+        window.add(42 * MINUTE, 1);
+        assertFalse(window.isCovered());
+    }
+}
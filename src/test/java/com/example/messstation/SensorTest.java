@@ -0,0 +1,60 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+class SensorTest {
+    @Test
+    void idsComeFromTheEntriesNotTheirOrder() throws IOException {
+        final var sensors = Sensor.parse("{\"sensors\": ["
+                + entry(2, "c", 1, 10, 10) + ", " + entry(0, "a", 1, 10, 10) + ", " + entry(1, "b", 1, 10, 10) + "]}");
+
+        assertEquals(3, sensors.length);
+        for (int id = 0; id < sensors.length; id++) {
+            assertEquals(id, sensors[id].id());
+        }
+        assertEquals("a", sensors[0].name());
+        assertEquals("c", sensors[2].name());
+    }
+
+    @Test
+    void theBundledRegistryKeepsItsIds() {
+        assertEquals(0, Sensor.TEMPERATUR.id());
+        assertEquals(1, Sensor.OZON.id());
+        assertEquals(2, Sensor.FEINSTAUB.id());
+        assertEquals(3, Sensor.KOHLENMONOXID.id());
+        assertEquals(4, Sensor.STICKSTOFFDIOXID.id());
+        assertEquals(5, Sensor.SCHWEFELDIOXID.id());
+    }
+
+    @Test
+    void rejectsMissingDuplicateAndOutOfRangeIds() {
+        assertInvalid("{\"sensors\": [{\"name\": \"a\", \"max\": 10, \"walkStep\": 1, \"bands\": []}]}");
+        assertInvalid("{\"sensors\": [" + entry(0, "a", 1, 10, 10) + ", " + entry(0, "b", 1, 10, 10) + "]}");
+        assertInvalid("{\"sensors\": [" + entry(0, "a", 1, 10, 10) + ", " + entry(2, "b", 1, 10, 10) + "]}");
+        assertInvalid("{\"sensors\": [" + entry(-1, "a", 1, 10, 10) + "]}");
+    }
+
+    @Test
+    void rejectsWalksAndScalesThatCannotWork() {
+        assertInvalid("{\"sensors\": [" + entry(0, "a", 0, 10, 10) + "]}");
+        assertInvalid("{\"sensors\": [" + entry(0, "a", -1, 10, 10) + "]}");
+        assertInvalid("{\"sensors\": [" + entry(0, "a", 1, 0, 10) + "]}");
+        assertInvalid("{\"sensors\": [" + entry(0, "a", 1, 10, 0) + "]}");
+        // without walkMax the walk runs up to max, which is less than 1 here
+        assertInvalid("{\"sensors\": [{\"id\": 0, \"name\": \"a\", \"max\": 0.5, \"walkStep\": 0.1, \"bands\": []}]}");
+    }
+
+    private static String entry(int id, String name, double walkStep, int walkMax, double max) {
+        return "{\"id\": " + id + ", \"name\": \"" + name + "\", \"max\": " + max + ", \"walkStep\": " + walkStep
+                + ", \"walkMax\": " + walkMax + ", \"bands\": [1, 2]}";
+    }
+
+    private static void assertInvalid(String registry) {
+        assertThrows(IOException.class, () -> Sensor.parse(registry));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SettingsLoaderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void jsonAndXmlWithTheSameContentGiveTheSameSettings() throws IOException {
+        final var json = new StringBuilder("{");
+        final var xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<messstation>\n");
+        for (final Sensor sensor : Sensor.all()) {
+            final boolean enabled = sensor.id() % 2 == 0;
+            json.append('"').append(sensor.key()).append("\": \"").append(enabled).append("\", ");
+            xml.append("  <").append(sensor.key()).append('>').append(enabled)
+                    .append("</").append(sensor.key()).append(">\n");
+        }
+        // own bands for one sensor, the others keep the defaults of the registry
+        json.append('"').append(Sensor.OZON.bandsKey()).append("\": [10, 20.5, 30]}");
+        xml.append("  <").append(Sensor.OZON.bandsKey()).append("> 10, 20.5 ,30 </")
+                .append(Sensor.OZON.bandsKey()).append(">\n</messstation>\n");
+
+        final var fromJson = parse(json.toString());
+        final var fromXml = parse(xml.toString());
+
+        assertArrayEquals(fromJson.getEnabledSensors(), fromXml.getEnabledSensors());
+        for (final Sensor sensor : Sensor.all()) {
+            assertEquals(sensor.id() % 2 == 0, fromJson.isEnabled(sensor));
+            assertEquals(fromJson.isEnabled(sensor), fromXml.isEnabled(sensor));
+            assertArrayEquals(fromJson.getDescriptor(sensor).getBounds(), fromXml.getDescriptor(sensor).getBounds());
+        }
+        assertArrayEquals(new double[] {10, 20.5, 30}, fromJson.getDescriptor(Sensor.OZON).getBounds());
+        assertArrayEquals(Sensor.FEINSTAUB.defaultBands(), fromXml.getDescriptor(Sensor.FEINSTAUB).getBounds());
+    }
+
+    @Test
+    void rejectsMalformedBandsInBothFormats() {
+        final String[][] cases = {
+            // JSON array, XML text
+            {"[\"abc\"]", "abc"},
+            {"[1, \"x\"]", "1,x"},
+            {"[\"NaN\"]", "NaN"},
+            {"[3, 2]", "3,2"},
+            {"[1, 1]", "1,1"}
+        };
+        for (final String[] bands : cases) {
+            assertThrows(IOException.class, () -> parse(
+                    "{" + allEnabledJson() + "\"" + Sensor.OZON.bandsKey() + "\": " + bands[0] + "}"), bands[0]);
+            assertThrows(IOException.class, () -> parse("<messstation>" + allEnabledXml()
+                    + "<" + Sensor.OZON.bandsKey() + ">" + bands[1] + "</" + Sensor.OZON.bandsKey() + ">"
+                    + "</messstation>"), bands[1]);
+        }
+    }
+
+    @Test
+    void rejectsMissingFlagsAndOtherFormats() {
+        assertThrows(IOException.class, () -> parse("{\"" + Sensor.OZON.key() + "\": \"true\"}"));
+        assertThrows(IOException.class, () -> parse("<messstation></messstation>"));
+        assertThrows(IOException.class, () -> parse("ozonEnabled=true"));
+        assertThrows(IOException.class, () -> parse("{broken"));
+    }
+
+    @Test
+    void theCacheIsRefreshedWhenTheFileChanges() throws IOException {
+        final var file = directory.resolve("station.json");
+        Files.writeString(file, "{" + allEnabledJson() + "\"x\": 0}", StandardCharsets.UTF_8);
+        final var first = SettingsLoader.load(file);
+        assertSame(first, SettingsLoader.load(file));
+
+        // the same size, only the modification time tells the change
+        Files.writeString(file, "{" + allEnabledJson().replace(Sensor.OZON.key() + "\": \"true\"",
+                Sensor.OZON.key() + "\": \"fals\"") + "\"x\": 0}", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2_000));
+        final var changed = SettingsLoader.load(file);
+        assertNotSame(first, changed);
+        assertTrue(first.isEnabled(Sensor.OZON));
+        assertFalse(changed.isEnabled(Sensor.OZON));
+
+        // a different size with the same modification time is a change as well
+        final var time = Files.getLastModifiedTime(file);
+        Files.writeString(file, "{" + allEnabledJson() + "\"x\": 12345}", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, time);
+        assertTrue(SettingsLoader.load(file).isEnabled(Sensor.OZON));
+    }
+
+    private static StationSettings parse(String body) throws IOException {
+        return SettingsLoader.parse(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String allEnabledJson() {
+        final var json = new StringBuilder();
+        for (final Sensor sensor : Sensor.all()) {
+            json.append('"').append(sensor.key()).append("\": \"true\", ");
+        }
+        return json.toString();
+    }
+
+    private static String allEnabledXml() {
+        final var xml = new StringBuilder();
+        for (final Sensor sensor : Sensor.all()) {
+            xml.append('<').append(sensor.key()).append(">true</").append(sensor.key()).append('>');
+        }
+        return xml.toString();
+    }
+}
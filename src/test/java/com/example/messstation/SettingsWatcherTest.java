@@ -0,0 +1,42 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SettingsWatcherTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void aChangedFileIsAppliedToTheRunningStation() throws IOException, InterruptedException {
+        final var station = TestStations.create(directory, "station", Sensor.OZON, Sensor.FEINSTAUB);
+        final var changed = new CountDownLatch(1);
+        station.addListener(new StationListener() {
+            @Override
+            public void onTick(StationCore core) {
+            }
+
+            @Override
+            public void onSettingsChanged(StationCore core) {
+                changed.countDown();
+            }
+        });
+        try (var watcher = new SettingsWatcher()) {
+            watcher.add(station);
+
+            TestStations.create(directory, "station", Sensor.OZON);
+
+            assertTrue(changed.await(10, TimeUnit.SECONDS), "settings were not reloaded");
+        }
+        assertEquals(1, station.getEnabledSensors().length);
+        assertTrue(station.isEnabled(Sensor.OZON));
+    }
+}
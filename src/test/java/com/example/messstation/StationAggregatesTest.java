@@ -0,0 +1,90 @@
+package com.example.messstation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StationAggregatesTest {
+    private static final long START = 1_714_521_600_000L;
+    private static final long MINUTE = 60_000L;
+
+    @TempDir
+    Path directory;
+
+    private final AlertDispatcher dispatcher = new AlertDispatcher();
+
+    @AfterEach
+    void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void everyReadingOfATickReachesTheWindows() throws IOException {
+        final var station = station();
+        final var aggregates = StationAggregates.attach(station, dispatcher);
+
+        // one tick that ingested three readings, as a ReadingQueue does after a burst
+        station.setValue(Sensor.SCHWEFELDIOXID, 0.1, START);
+        station.setValue(Sensor.SCHWEFELDIOXID, 0.2, START + 1_000);
+        station.setValue(Sensor.SCHWEFELDIOXID, 0.6, START + 2_000);
+        station.publish();
+        // a tick without new readings adds nothing
+        station.publish();
+
+        final var window = aggregates.getWindow(Sensor.SCHWEFELDIOXID, AirQualityLimit.Window.HOUR_1);
+        assertNotNull(window);
+        assertEquals(3, window.count());
+        assertEquals(0.3, window.mean(), 1e-9);
+        assertEquals(0.6, window.max());
+        assertNull(aggregates.getWindow(Sensor.OZON, AirQualityLimit.Window.HOURS_8));
+    }
+
+    @Test
+    void aBreachIsPublishedOnceTheWindowIsCovered() throws IOException, InterruptedException {
+        final var station = station();
+        StationAggregates.attach(station, dispatcher);
+        final BlockingQueue<BreachEvent> events = new LinkedBlockingQueue<>();
+        dispatcher.addListener(events::add);
+
+        // one tick per minute with twelve readings above the 1h limit of sulphur dioxide
+        for (int minute = 0; minute < 45; minute++) {
+            for (int i = 0; i < 12; i++) {
+                station.setValue(Sensor.SCHWEFELDIOXID, 0.5, START + minute * MINUTE + i * 5_000L);
+            }
+            station.publish();
+            assertTrue(minute == 44 || events.isEmpty(), "breach before the window was covered");
+        }
+
+        final var event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(AirQualityLimit.SCHWEFELDIOXID_1H, event.getLimit());
+        assertTrue(event.isExceeded());
+        assertEquals(0.5, event.getAverage(), 1e-9);
+        assertEquals(START + 44 * MINUTE + 11 * 5_000L, event.getTime());
+
+        // staying above the limit does not publish again
+        station.setValue(Sensor.SCHWEFELDIOXID, 0.5, START + 45 * MINUTE);
+        station.publish();
+        assertNull(events.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    /*
+     * A station with sulphur dioxide only and without the start value of the simulation in its history.
+     */
+    private StationCore station() throws IOException {
+        final var station = TestStations.create(directory, "station", Sensor.SCHWEFELDIOXID);
+        station.getHistory(Sensor.SCHWEFELDIOXID).clear();
+        return station;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.messstation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.json.JSONObject;
+
+/*
+ * Stations with a known set of enabled sensors for the tests, independent of the settings shipped in settings/.
+ */
+final class TestStations {
+
+    private TestStations() {
+    }
+
+    /*
+     * Writes the settings file <name>.json into the directory and loads it, only the given sensors are enabled.
+     */
+    static StationCore create(Path directory, String name, Sensor... enabled) throws IOException {
+        final var settings = new JSONObject();
+        final var on = Set.of(enabled);
+        for (final Sensor sensor : Sensor.all()) {
+            settings.put(sensor.key(), String.valueOf(on.contains(sensor)));
+        }
+        final var file = directory.resolve(name + ".json");
+        Files.writeString(file, settings.toString(), StandardCharsets.UTF_8);
+        return new StationCore(file);
+    }
+
+    // a station with every sensor of the registry enabled
+    static StationCore createAll(Path directory, String name) throws IOException {
+        return create(directory, name, Sensor.all());
+    }
+
+    /*
+     * Sets one reading per enabled sensor, value = base + sensor id, and publishes the tick.
+     */
+    static void tick(StationCore station, long time, double base) {
+        for (final Sensor sensor : station.getEnabledSensors()) {
+            station.setValue(sensor, base + sensor.id(), time);
+        }
+        station.publish();
+    }
+}